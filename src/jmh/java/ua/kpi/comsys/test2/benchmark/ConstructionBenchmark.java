@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Construction of a number from decimal string and from file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConstructionBenchmark {
+
+    File file;
+
+    @Setup(Level.Trial)
+    public void setUp(NumberState state) throws IOException {
+        file = File.createTempFile("number", ".txt");
+        Files.write(file.toPath(), state.decimal.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public NumberListImpl fromString(NumberState state) {
+        return new NumberListImpl(state.decimal);
+    }
+
+    @Benchmark
+    public NumberListImpl fromFile() {
+        return new NumberListImpl(file);
+    }
+
+    @Benchmark
+    public BigInteger baselineBigIntegerFromString(NumberState state) {
+        return new BigInteger(state.decimal);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Conversions between scales of notation and the additional operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    @Benchmark
+    public String toDecimalString(NumberState state) {
+        return state.list.toDecimalString();
+    }
+
+    @Benchmark
+    public NumberListImpl changeScale(NumberState state) {
+        return state.list.changeScale();
+    }
+
+    @Benchmark
+    public NumberListImpl additionalOperation(NumberState state) {
+        return state.list.additionalOperation(state.other);
+    }
+
+    @Benchmark
+    public String baselineBigIntegerToString(NumberState state) {
+        return state.value.toString();
+    }
+
+    @Benchmark
+    public String baselineBigIntegerToOctal(NumberState state) {
+        return state.value.toString(8);
+    }
+
+    @Benchmark
+    public BigInteger baselineBigIntegerOr(NumberState state) {
+        return state.value.or(state.otherValue);
+    }
+}
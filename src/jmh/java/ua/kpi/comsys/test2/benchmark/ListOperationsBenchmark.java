@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * List operations of <tt>NumberListImpl</tt> next to the same operations
+ * on <tt>LinkedList&lt;Byte&gt;</tt>.<p>
+ *
+ * Operations that destroy their input (sorts, removeAll) run on a fresh
+ * copy, prepared before each invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListOperationsBenchmark {
+
+    static final List<Byte> REMOVED = Collections.singletonList((byte) 1);
+
+    int index;
+    File file;
+
+    /**
+     * Fresh copies of the input for operations that modify it.
+     */
+    @State(Scope.Thread)
+    public static class Copies {
+        NumberListImpl list;
+        LinkedList<Byte> linkedList;
+
+        @Setup(Level.Invocation)
+        public void setUp(NumberState state) {
+            list = state.list.changeScale(state.list.getBase());
+            linkedList = new LinkedList<>(state.linkedList);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUpFile() throws IOException {
+        file = File.createTempFile("number", ".txt");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownFile() {
+        file.delete();
+    }
+
+    private int nextIndex(int size) {
+        index += 7919;
+        if (index >= size) {
+            index %= size;
+        }
+        return index;
+    }
+
+    @Benchmark
+    public Byte get(NumberState state) {
+        return state.list.get(nextIndex(state.list.size()));
+    }
+
+    @Benchmark
+    public Byte set(NumberState state) {
+        return state.list.set(nextIndex(state.list.size()), (byte) 1);
+    }
+
+    @Benchmark
+    public NumberListImpl sortAscending(Copies copies) {
+        copies.list.sortAscending();
+        return copies.list;
+    }
+
+    @Benchmark
+    public NumberListImpl sortDescending(Copies copies) {
+        copies.list.sortDescending();
+        return copies.list;
+    }
+
+    @Benchmark
+    public NumberListImpl shiftLeft(NumberState state) {
+        state.list.shiftLeft();
+        return state.list;
+    }
+
+    @Benchmark
+    public NumberListImpl shiftRight(NumberState state) {
+        state.list.shiftRight();
+        return state.list;
+    }
+
+    @Benchmark
+    public int indexOf(NumberState state) {
+        return state.list.indexOf((byte) (state.list.get(state.list.size() - 1) ^ 1));
+    }
+
+    @Benchmark
+    public boolean removeAll(Copies copies) {
+        return copies.list.removeAll(REMOVED);
+    }
+
+    @Benchmark
+    public File saveList(NumberState state) {
+        state.list.saveList(file);
+        return file;
+    }
+
+    @Benchmark
+    public Byte baselineLinkedListGet(NumberState state) {
+        return state.linkedList.get(nextIndex(state.linkedList.size()));
+    }
+
+    @Benchmark
+    public Byte baselineLinkedListSet(NumberState state) {
+        return state.linkedList.set(nextIndex(state.linkedList.size()), (byte) 1);
+    }
+
+    @Benchmark
+    public LinkedList<Byte> baselineLinkedListSort(Copies copies) {
+        Collections.sort(copies.linkedList);
+        return copies.linkedList;
+    }
+
+    @Benchmark
+    public LinkedList<Byte> baselineLinkedListRotate(NumberState state) {
+        Collections.rotate(state.linkedList, -1);
+        return state.linkedList;
+    }
+
+    @Benchmark
+    public int baselineLinkedListIndexOf(NumberState state) {
+        return state.linkedList.indexOf((byte) (state.linkedList.getLast() ^ 1));
+    }
+
+    @Benchmark
+    public boolean baselineLinkedListRemoveAll(Copies copies) {
+        return copies.linkedList.removeAll(REMOVED);
+    }
+}
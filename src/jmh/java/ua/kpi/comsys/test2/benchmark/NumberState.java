@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.math.BigInteger;
+import java.util.LinkedList;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Shared input for benchmarks: random number with the given count of
+ * decimal digits, as <tt>NumberListImpl</tt> and as both baselines
+ * (<tt>BigInteger</tt> and <tt>LinkedList&lt;Byte&gt;</tt> with the same digits).
+ */
+@State(Scope.Benchmark)
+public class NumberState {
+
+    @Param({"10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int digits;
+
+    public String decimal;
+    public String otherDecimal;
+
+    public NumberListImpl list;
+    public NumberListImpl other;
+
+    public BigInteger value;
+    public BigInteger otherValue;
+    public LinkedList<Byte> linkedList;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(6);
+        decimal = randomDecimal(random, digits);
+        otherDecimal = randomDecimal(random, digits);
+
+        list = new NumberListImpl(decimal);
+        other = new NumberListImpl(otherDecimal);
+
+        value = new BigInteger(decimal);
+        otherValue = new BigInteger(otherDecimal);
+        linkedList = new LinkedList<>(list);
+    }
+
+    static String randomDecimal(Random random, int digits) {
+        StringBuilder sb = new StringBuilder(digits);
+        sb.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < digits; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scalar and SIMD digit kernels on the same data. The benchmark lives in
+ * the implementation package, because kernels are package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DigitKernelsBenchmark {
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    @Param({"3", "8"})
+    public int base;
+
+    @Param({"1000", "1000000"})
+    public int digits;
+
+    private DigitKernels impl;
+    private byte[] a;
+    private byte[] b;
+    private byte[] work;
+    private byte[] ascii;
+    private int[] counts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        impl = kernels.equals("vector") ? new VectorKernels() : new ScalarKernels();
+        Random random = new Random(40);
+        a = new byte[digits];
+        b = new byte[digits];
+        for (int i = 0; i < digits; i++) {
+            a[i] = (byte) random.nextInt(base);
+            b[i] = (byte) random.nextInt(base);
+        }
+        work = a.clone();
+        ascii = new byte[digits];
+        counts = new int[base];
+    }
+
+    @Benchmark
+    public int validate() {
+        return impl.firstInvalid(a, 0, digits, base);
+    }
+
+    @Benchmark
+    public int[] histogram() {
+        counts[0] = 0;
+        impl.histogram(a, 0, digits, counts);
+        return counts;
+    }
+
+    @Benchmark
+    public byte[] toAscii() {
+        impl.toAscii(a, 0, digits, ascii, 0);
+        return ascii;
+    }
+
+    @Benchmark
+    public byte[] or() {
+        impl.or(work, 0, b, 0, digits);
+        return work;
+    }
+}
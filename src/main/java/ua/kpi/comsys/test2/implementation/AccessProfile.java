@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+/**
+ * Mix of positional operations on a list with {@link Storage#AUTO}
+ * storage, observed over a window of calls.<p>
+ *
+ * At the end of each window the mix is turned into advice:
+ * <ul>
+ * <li>inserts and removes in the middle are rare - {@link Storage#PACKED},
+ * an array with constant-time access and appends;</li>
+ * <li>most of them are near the previous one - {@link Storage#GAP_BUFFER};</li>
+ * <li>otherwise - {@link Storage#TREE}.</li>
+ * </ul>
+ * A window is at least a quarter of the list long, so moving the digits
+ * to another store costs not more than a constant per observed call.
+ */
+final class AccessProfile {
+
+    static final int MIN_WINDOW = 4096;
+
+    /**
+     * Відстань від попередньої вставки, в межах якої вона вважається
+     * роботою з тим самим курсором.
+     */
+    static final int LOCALITY = 64;
+
+    private int calls;
+    private int edits;
+    private int localEdits;
+    private int lastEdit = -1;
+
+    /**
+     * Records a positional read or overwrite.
+     *
+     * @return advice at the end of a window, or <tt>null</tt>.
+     */
+    Storage read(int size) {
+        return next(size);
+    }
+
+    /**
+     * Records an insert or remove at <tt>index</tt>. Edits at the end of
+     * the list are appends and are counted as reads.
+     *
+     * @return advice at the end of a window, or <tt>null</tt>.
+     */
+    Storage edit(int index, int size) {
+        if (index < size - 1) {
+            edits++;
+            if (lastEdit >= 0 && Math.abs(index - lastEdit) <= LOCALITY) {
+                localEdits++;
+            }
+            lastEdit = index;
+        }
+        return next(size);
+    }
+
+    private Storage next(int size) {
+        if (++calls < Math.max(MIN_WINDOW, size >> 2)) {
+            return null;
+        }
+        Storage advice;
+        if (edits * 8L < calls) {
+            advice = Storage.PACKED;
+        } else if (localEdits * 4L >= edits * 3L) {
+            advice = Storage.GAP_BUFFER;
+        } else {
+            advice = Storage.TREE;
+        }
+        calls = 0;
+        edits = 0;
+        localEdits = 0;
+        return advice;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+
+/**
+ * Future of a conversion running on an executor.<p>
+ *
+ * Unlike a plain <tt>CompletableFuture</tt>, {@link #cancel(boolean)}
+ * interrupts the thread running the conversion, and the conversion stops
+ * at the next leaf of digits. Progress is reported as a fraction of the
+ * expected count of processed digits, not more often than once per
+ * percent.
+ */
+final class AsyncTask<T> extends CompletableFuture<T> implements ConversionMonitor {
+
+    private static final double REPORT_STEP = 0.01;
+
+    private final Object lock = new Object();
+    private final long totalDigits;
+    private final DoubleConsumer progress;
+
+    /**
+     * Потік, що виконує задачу; null до старту і після завершення.
+     */
+    private Thread runner;
+
+    private long doneDigits;
+    private double reported;
+
+    private AsyncTask(long totalDigits, DoubleConsumer progress) {
+        this.totalDigits = Math.max(totalDigits, 1);
+        this.progress = progress;
+    }
+
+    /**
+     * Starts <tt>work</tt> on the executor.
+     *
+     * @param executor - where to run the work.
+     * @param totalDigits - expected count of digits the work reports to the monitor.
+     * @param progress - receives fractions from 0 to 1, or <tt>null</tt>.
+     * @param work - conversion, which reports to the given monitor.
+     */
+    static <T> CompletableFuture<T> start(Executor executor, long totalDigits, DoubleConsumer progress,
+                                          Function<ConversionMonitor, T> work) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        AsyncTask<T> task = new AsyncTask<>(totalDigits, progress);
+        try {
+            executor.execute(() -> task.run(work));
+        } catch (RuntimeException e) {
+            task.completeExceptionally(e);
+        }
+        return task;
+    }
+
+    private void run(Function<ConversionMonitor, T> work) {
+        synchronized (lock) {
+            if (isDone()) {
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+        try {
+            T result = work.apply(this);
+            if (progress != null && reported < 1) {
+                progress.accept(1);
+            }
+            complete(result);
+        } catch (Throwable e) {
+            completeExceptionally(e);
+        } finally {
+            synchronized (lock) {
+                runner = null;
+                // потік пулу не повинен лишитися перерваним після скасування
+                Thread.interrupted();
+            }
+        }
+    }
+
+    @Override
+    public void advance(long digits) {
+        if (isCancelled() || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException();
+        }
+        doneDigits += digits;
+        if (progress != null) {
+            double fraction = Math.min(1, (double) doneDigits / totalDigits);
+            if (fraction - reported >= REPORT_STEP) {
+                reported = fraction;
+                progress.accept(fraction);
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            synchronized (lock) {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+        return cancelled;
+    }
+}
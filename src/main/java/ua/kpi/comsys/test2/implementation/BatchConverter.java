@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts every number file in a directory in one JVM.<p>
+ *
+ * Each file goes through the same steps as
+ * <tt>new NumberListImpl(file).changeScale().saveList(out)</tt>. Every
+ * file runs on its own virtual thread, which does the reading and
+ * writing. Conversion runs on a bounded pool of platform threads, so file
+ * I/O of one file overlaps with conversion of others.<p>
+ *
+ * Usage: <tt>BatchConverter &lt;input dir&gt; &lt;output dir&gt; [threads]</tt>
+ */
+public final class BatchConverter {
+
+    /**
+     * Скільки файлів на один потік обчислень можуть бути прочитані наперед.
+     */
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
+    private final int computeThreads;
+
+    /**
+     * Creates converter with the given number of conversion threads.
+     *
+     * @param computeThreads - size of the conversion pool.
+     */
+    public BatchConverter(int computeThreads) {
+        if (computeThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.computeThreads = computeThreads;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BatchConverter <input dir> <output dir> [threads]");
+            System.exit(2);
+        }
+        int threads = args.length == 3
+            ? Integer.parseInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+        Report report = new BatchConverter(threads).run(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println(report);
+        if (report.getFailed() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Converts all regular files under <tt>inputDir</tt> and writes results
+     * with the same relative names under <tt>outputDir</tt>.
+     *
+     * @param inputDir - directory with decimal number files.
+     * @param outputDir - directory for results.
+     * @return statistics of the run.
+     * @throws IOException if the input directory cannot be listed.
+     */
+    public Report run(Path inputDir, Path outputDir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(inputDir)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+
+        long[] latencies = new long[files.size()];
+        AtomicLong digits = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        Semaphore inFlight = new Semaphore(computeThreads * IN_FLIGHT_PER_THREAD);
+
+        long start = System.nanoTime();
+        ExecutorService compute = Executors.newFixedThreadPool(computeThreads);
+        try (ExecutorService perFile = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                Path source = files.get(i);
+                Path target = outputDir.resolve(inputDir.relativize(source));
+                perFile.submit(() -> {
+                    inFlight.acquireUninterruptibly();
+                    long fileStart = System.nanoTime();
+                    try {
+                        String content = Files.readString(source, StandardCharsets.UTF_8).trim();
+                        String result = CompletableFuture
+                            .supplyAsync(() -> convert(content), compute)
+                            .join();
+                        Files.createDirectories(target.toAbsolutePath().getParent());
+                        Files.write(target, result.getBytes(StandardCharsets.UTF_8));
+                        digits.addAndGet(content.length());
+                    } catch (IOException | RuntimeException e) {
+                        failed.incrementAndGet();
+                        System.err.println("Failed to convert " + source + ": " + e);
+                    } finally {
+                        inFlight.release();
+                        latencies[index] = System.nanoTime() - fileStart;
+                    }
+                });
+            }
+        } finally {
+            compute.shutdown();
+        }
+        return new Report(files.size(), failed.get(), digits.get(), System.nanoTime() - start, latencies);
+    }
+
+    /**
+     * Обчислювальна частина: те саме, що робить saveList() для результату
+     * changeScale(), але без запису у файл.
+     */
+    private static String convert(String content) {
+        NumberListImpl list = content.isEmpty() ? new NumberListImpl() : new NumberListImpl(content);
+        return list.changeScale().toDecimalString();
+    }
+
+    /**
+     * Statistics of a single batch run.
+     */
+    public static final class Report {
+        private final long files;
+        private final long failed;
+        private final long digits;
+        private final long elapsedNanos;
+        private final long[] sortedLatencies;
+
+        Report(long files, long failed, long digits, long elapsedNanos, long[] latencies) {
+            this.files = files;
+            this.failed = failed;
+            this.digits = digits;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencies = latencies.clone();
+            Arrays.sort(sortedLatencies);
+        }
+
+        public long getFiles() {
+            return files;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getDigits() {
+            return digits;
+        }
+
+        public double getFilesPerSecond() {
+            return files / seconds();
+        }
+
+        public double getDigitsPerSecond() {
+            return digits / seconds();
+        }
+
+        /**
+         * Returns latency of a single file at the given percentile.
+         *
+         * @param percentile - value from 0 to 100.
+         * @return latency in milliseconds.
+         */
+        public double getLatencyMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            index = Math.max(0, Math.min(sortedLatencies.length - 1, index));
+            return sortedLatencies[index] / 1e6;
+        }
+
+        private double seconds() {
+            return Math.max(elapsedNanos, 1) / 1e9;
+        }
+
+        @Override
+        public String toString() {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format("files: %d (failed: %d) in %.3f s", files, failed, seconds()));
+            lines.add(String.format("throughput: %.1f files/s, %.0f digits/s",
+                getFilesPerSecond(), getDigitsPerSecond()));
+            lines.add(String.format("latency ms: p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f",
+                getLatencyMillis(50), getLatencyMillis(90), getLatencyMillis(99),
+                getLatencyMillis(99.9), getLatencyMillis(100)));
+            return String.join(System.lineSeparator(), lines);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+/**
+ * Digits in blocks of at most {@value #BLOCK} digits, indexed by a
+ * Fenwick tree of block sizes.<p>
+ *
+ * A position is found by descending the tree in <tt>O(log(n / BLOCK))</tt>
+ * steps. An insert or remove moves digits only inside one block and
+ * updates the tree in logarithmic time; the tree is rebuilt only when a
+ * block is split or dropped. Edits at scattered positions therefore cost
+ * much less than in an array, while positional access stays close to it.
+ */
+final class BlockTreeDigitStore implements DigitStore {
+
+    static final int BLOCK = 1024;
+
+    private static final int MIN_BLOCK_CAPACITY = 16;
+
+    private byte[][] blocks = new byte[8][];
+    private int[] sizes = new int[8];
+    private int blockCount;
+
+    /**
+     * Дерево Фенвіка над sizes, індекси з одиниці.
+     */
+    private int[] tree = new int[9];
+
+    private int size;
+
+    /**
+     * Результат пошуку позиції: блок і зміщення в ньому.
+     */
+    private int foundBlock;
+    private int foundOffset;
+
+    /**
+     * Finds block and offset of position <tt>index &lt; size</tt>.
+     */
+    private void locate(int index) {
+        int pos = 0;
+        int rest = index;
+        for (int step = Integer.highestOneBit(blockCount); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= blockCount && tree[next] <= rest) {
+                pos = next;
+                rest -= tree[next];
+            }
+        }
+        foundBlock = pos;
+        foundOffset = rest;
+    }
+
+    private void update(int block, int delta) {
+        for (int i = block + 1; i <= blockCount; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void rebuild() {
+        if (tree.length < blockCount + 1) {
+            tree = new int[blocks.length + 1];
+        }
+        Arrays.fill(tree, 0, blockCount + 1, 0);
+        for (int i = 1; i <= blockCount; i++) {
+            tree[i] += sizes[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= blockCount) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Вставляє порожні блоки перед блоком at; дерево треба перебудувати.
+     */
+    private void insertBlocks(int at, int count) {
+        if (blockCount + count > blocks.length) {
+            int capacity = Math.max(blockCount + count, blocks.length * 2);
+            blocks = Arrays.copyOf(blocks, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            tree = Arrays.copyOf(tree, capacity + 1);
+        }
+        System.arraycopy(blocks, at, blocks, at + count, blockCount - at);
+        System.arraycopy(sizes, at, sizes, at + count, blockCount - at);
+        blockCount += count;
+    }
+
+    private void removeBlock(int at) {
+        System.arraycopy(blocks, at + 1, blocks, at, blockCount - at - 1);
+        System.arraycopy(sizes, at + 1, sizes, at, blockCount - at - 1);
+        blockCount--;
+        blocks[blockCount] = null;
+    }
+
+    /**
+     * Makes position <tt>index</tt> the start of a block.
+     *
+     * @return block which starts at <tt>index</tt> (<tt>blockCount</tt> for the end).
+     */
+    private int split(int index) {
+        if (index == size) {
+            return blockCount;
+        }
+        locate(index);
+        int k = foundBlock;
+        int offset = foundOffset;
+        if (offset == 0) {
+            return k;
+        }
+        insertBlocks(k + 1, 1);
+        blocks[k + 1] = Arrays.copyOfRange(blocks[k], offset, Math.max(sizes[k], offset + MIN_BLOCK_CAPACITY));
+        sizes[k + 1] = sizes[k] - offset;
+        sizes[k] = offset;
+        rebuild();
+        return k + 1;
+    }
+
+    /**
+     * Joins block with the next one, if both fit into one block.
+     */
+    private void mergeWithNext(int k) {
+        if (k < 0 || k + 1 >= blockCount || sizes[k] + sizes[k + 1] > BLOCK / 2) {
+            return;
+        }
+        ensureBlockCapacity(k, sizes[k] + sizes[k + 1]);
+        System.arraycopy(blocks[k + 1], 0, blocks[k], sizes[k], sizes[k + 1]);
+        sizes[k] += sizes[k + 1];
+        removeBlock(k + 1);
+        rebuild();
+    }
+
+    private void ensureBlockCapacity(int k, int required) {
+        byte[] block = blocks[k];
+        if (required > block.length) {
+            blocks[k] = Arrays.copyOf(block, Math.min(BLOCK, Math.max(required, block.length * 2)));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int index) {
+        locate(index);
+        return blocks[foundBlock][foundOffset];
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        locate(index);
+        blocks[foundBlock][foundOffset] = value;
+    }
+
+    @Override
+    public void add(byte value) {
+        int last = blockCount - 1;
+        if (last < 0 || sizes[last] == BLOCK) {
+            appendBlocks(new byte[] {value}, 0, 1);
+            return;
+        }
+        ensureBlockCapacity(last, sizes[last] + 1);
+        blocks[last][sizes[last]++] = value;
+        update(last, 1);
+        size++;
+    }
+
+    @Override
+    public void add(int index, byte value) {
+        if (index == size) {
+            add(value);
+            return;
+        }
+        locate(index);
+        int k = foundBlock;
+        int offset = foundOffset;
+        if (sizes[k] == BLOCK) {
+            split(index - offset + BLOCK / 2);
+            if (offset >= BLOCK / 2) {
+                k++;
+                offset -= BLOCK / 2;
+            }
+        }
+        ensureBlockCapacity(k, sizes[k] + 1);
+        byte[] block = blocks[k];
+        System.arraycopy(block, offset, block, offset + 1, sizes[k] - offset);
+        block[offset] = value;
+        sizes[k]++;
+        update(k, 1);
+        size++;
+    }
+
+    /**
+     * Дописує цифри в кінець: доповнює останній блок і додає повні нові.
+     */
+    private void appendBlocks(byte[] digits, int from, int to) {
+        int last = blockCount - 1;
+        if (last >= 0 && sizes[last] < BLOCK) {
+            int n = Math.min(to - from, BLOCK - sizes[last]);
+            ensureBlockCapacity(last, sizes[last] + n);
+            System.arraycopy(digits, from, blocks[last], sizes[last], n);
+            sizes[last] += n;
+            from += n;
+            size += n;
+        }
+        int count = (to - from + BLOCK - 1) / BLOCK;
+        insertBlocks(blockCount, count);
+        fill(blockCount - count, digits, from, to);
+        rebuild();
+    }
+
+    /**
+     * Заповнює блоки, починаючи з k, цифрами [from, to) по BLOCK у блоці.
+     */
+    private void fill(int k, byte[] digits, int from, int to) {
+        for (int i = from; i < to; i += BLOCK, k++) {
+            int n = Math.min(BLOCK, to - i);
+            blocks[k] = Arrays.copyOfRange(digits, i, i + Math.max(n, MIN_BLOCK_CAPACITY));
+            sizes[k] = n;
+            size += n;
+        }
+    }
+
+    @Override
+    public void addAll(int index, byte[] digits, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        if (index == size) {
+            appendBlocks(digits, from, to);
+            return;
+        }
+        int at = split(index);
+        int count = (to - from + BLOCK - 1) / BLOCK;
+        insertBlocks(at, count);
+        fill(at, digits, from, to);
+        rebuild();
+        mergeWithNext(at + count - 1);
+        mergeWithNext(at - 1);
+    }
+
+    /**
+     * Takes over blocks of another tree store: only block references are
+     * moved, the digits are not copied.
+     */
+    @Override
+    public void transferFrom(int index, DigitStore source) {
+        if (!(source instanceof BlockTreeDigitStore) || source == this) {
+            DigitStore.super.transferFrom(index, source);
+            return;
+        }
+        BlockTreeDigitStore other = (BlockTreeDigitStore) source;
+        int count = other.blockCount;
+        if (count == 0) {
+            return;
+        }
+        int at = split(index);
+        insertBlocks(at, count);
+        System.arraycopy(other.blocks, 0, blocks, at, count);
+        System.arraycopy(other.sizes, 0, sizes, at, count);
+        size += other.size;
+        other.clear();
+        rebuild();
+        mergeWithNext(at + count - 1);
+        mergeWithNext(at - 1);
+    }
+
+    @Override
+    public byte remove(int index) {
+        locate(index);
+        int k = foundBlock;
+        int offset = foundOffset;
+        byte[] block = blocks[k];
+        byte old = block[offset];
+        System.arraycopy(block, offset + 1, block, offset, sizes[k] - offset - 1);
+        sizes[k]--;
+        size--;
+        if (sizes[k] == 0) {
+            removeBlock(k);
+            rebuild();
+        } else {
+            update(k, -1);
+            if (sizes[k] < BLOCK / 4) {
+                if (k + 1 < blockCount) {
+                    mergeWithNext(k);
+                } else {
+                    mergeWithNext(k - 1);
+                }
+            }
+        }
+        return old;
+    }
+
+    @Override
+    public void read(int from, byte[] dst, int off, int len) {
+        if (len == 0) {
+            return;
+        }
+        locate(from);
+        int k = foundBlock;
+        int offset = foundOffset;
+        while (len > 0) {
+            int n = Math.min(len, sizes[k] - offset);
+            System.arraycopy(blocks[k], offset, dst, off, n);
+            off += n;
+            len -= n;
+            k++;
+            offset = 0;
+        }
+    }
+
+    @Override
+    public void write(int index, byte[] digits, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        locate(index);
+        int k = foundBlock;
+        int offset = foundOffset;
+        while (from < to) {
+            int n = Math.min(to - from, sizes[k] - offset);
+            System.arraycopy(digits, from, blocks[k], offset, n);
+            from += n;
+            k++;
+            offset = 0;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(blocks, 0, blockCount, null);
+        blockCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void rotateLeft() {
+        if (size <= 1) return;
+        add(remove(0));
+    }
+
+    @Override
+    public void rotateRight() {
+        if (size <= 1) return;
+        add(0, remove(size - 1));
+    }
+
+    @Override
+    public int indexOf(byte value, int from) {
+        if (from >= size) {
+            return -1;
+        }
+        locate(from);
+        int start = from - foundOffset;
+        for (int k = foundBlock, offset = foundOffset; k < blockCount; k++, offset = 0) {
+            byte[] block = blocks[k];
+            for (int i = offset; i < sizes[k]; i++) {
+                if (block[i] == value) {
+                    return start + i;
+                }
+            }
+            start += sizes[k];
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte value) {
+        int end = size;
+        for (int k = blockCount - 1; k >= 0; k--) {
+            end -= sizes[k];
+            byte[] block = blocks[k];
+            for (int i = sizes[k] - 1; i >= 0; i--) {
+                if (block[i] == value) {
+                    return end + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long capacity() {
+        long capacity = 0;
+        for (int k = 0; k < blockCount; k++) {
+            capacity += blocks[k].length;
+        }
+        return capacity;
+    }
+
+    @Override
+    public void trimToSize() {
+        for (int k = 0; k < blockCount; k++) {
+            blocks[k] = Arrays.copyOf(blocks[k], sizes[k]);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "tree";
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Observer of long conversions. Conversions call it after each leaf of
+ * digits, which is also the point where a cancelled conversion stops.
+ */
+@FunctionalInterface
+interface ConversionMonitor {
+
+    /**
+     * Монітор для звичайних (синхронних) викликів: нічого не робить.
+     */
+    ConversionMonitor NONE = digits -> { };
+
+    /**
+     * Reports that another portion of digits was processed.
+     *
+     * @param digits - count of digits in the portion.
+     * @throws CancellationException if the conversion has to stop.
+     */
+    void advance(long digits);
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Store which keeps the number as it came (decimal text, a value or digits
+ * shared with other lists) and produces its own digits only when they are
+ * needed.<p>
+ *
+ * Until then the list answers decimal and value requests straight from
+ * the source, see {@link #decimal()} and {@link #value()}. Shared digits
+ * are also read in place and copied only on the first change, so lists
+ * handed out from one array are copy-on-write. The first other call
+ * converts the source into the target store, drops the source and from
+ * then on delegates to the target. {@link #clear()} drops the source
+ * without conversion.
+ */
+final class DeferredDigitStore implements DigitStore {
+
+    private static final double LOG10_2 = Math.log10(2);
+
+    private final int base;
+    private final DigitStore target;
+
+    /**
+     * Десяткові цифри без провідних нулів; null, якщо відоме лише значення.
+     */
+    private String decimal;
+    private BigInteger value;
+
+    /**
+     * Готові цифри, спільні з іншими списками; не змінюються.
+     */
+    private byte[] shared;
+    private boolean materialized;
+
+    /**
+     * @param decimal - decimal digits without leading zeros, or <tt>null</tt>.
+     * @param value - value of the number, or <tt>null</tt> if <tt>decimal</tt> is given.
+     * @param base - base of the digits to produce.
+     * @param target - empty store which receives the digits.
+     */
+    DeferredDigitStore(String decimal, BigInteger value, int base, DigitStore target) {
+        this.decimal = decimal;
+        this.value = value;
+        this.base = base;
+        this.target = target;
+    }
+
+    /**
+     * @param shared - digits in the base, which are never changed.
+     * @param base - base of the digits.
+     * @param target - empty store which receives a copy on first change.
+     */
+    DeferredDigitStore(byte[] shared, int base, DigitStore target) {
+        this(null, null, base, target);
+        this.shared = shared;
+    }
+
+    /**
+     * Returns whether digits were not produced yet.
+     */
+    boolean isPending() {
+        return !materialized;
+    }
+
+    /**
+     * Returns the number in decimal notation; the store must be pending.
+     */
+    String decimal() {
+        if (decimal == null && shared != null && base == 10
+            && shared.length > 0 && (shared[0] != 0 || shared.length == 1)) {
+            // десяткові цифри без провідних нулів вже є текстом
+            byte[] chars = new byte[shared.length];
+            DigitKernels.INSTANCE.toAscii(shared, 0, shared.length, chars, 0);
+            decimal = new String(chars, StandardCharsets.ISO_8859_1);
+        }
+        if (decimal == null) {
+            decimal = value().toString();
+        }
+        return decimal;
+    }
+
+    /**
+     * Returns value of the number; the store must be pending.
+     */
+    BigInteger value() {
+        if (value == null) {
+            if (shared != null) {
+                value = shared.length == 0 ? BigInteger.ZERO : Radix.of(base).toBigInteger(shared, 0, shared.length);
+            } else {
+                // як і при негайному розборі: BigInteger(String) квадратичний
+                byte[] source = Radix.parseDecimal(decimal);
+                value = Radix.of(10).toBigInteger(source, 0, source.length);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns number of decimal digits of the source (an estimate if
+     * there is no text); used for statistics only.
+     */
+    int sourceLength() {
+        if (shared != null) {
+            return shared.length;
+        }
+        return decimal != null ? decimal.length() : (int) (value.bitLength() * LOG10_2) + 1;
+    }
+
+    /**
+     * Converts the source into digits, if it was not done yet.
+     *
+     * @return store which holds the digits.
+     */
+    DigitStore digits() {
+        if (!materialized) {
+            Radix radix = Radix.of(base);
+            byte[] digits;
+            if (shared != null) {
+                digits = shared;
+            } else if (decimal != null) {
+                byte[] source = Radix.parseDecimal(decimal);
+                digits = radix.fromDecimal(source, 0, source.length);
+            } else {
+                digits = radix.toDigits(value);
+            }
+            target.addAll(0, digits, 0, digits.length);
+            drop();
+        }
+        return target;
+    }
+
+    private void drop() {
+        materialized = true;
+        decimal = null;
+        value = null;
+        shared = null;
+    }
+
+    @Override
+    public int size() {
+        return shared != null ? shared.length : digits().size();
+    }
+
+    @Override
+    public byte get(int index) {
+        return shared != null ? shared[index] : digits().get(index);
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        digits().set(index, value);
+    }
+
+    @Override
+    public void add(byte value) {
+        digits().add(value);
+    }
+
+    @Override
+    public void add(int index, byte value) {
+        digits().add(index, value);
+    }
+
+    @Override
+    public void addAll(int index, byte[] digits, int from, int to) {
+        digits().addAll(index, digits, from, to);
+    }
+
+    @Override
+    public void transferFrom(int index, DigitStore source) {
+        digits().transferFrom(index, source);
+    }
+
+    @Override
+    public byte remove(int index) {
+        return digits().remove(index);
+    }
+
+    @Override
+    public void read(int from, byte[] dst, int off, int len) {
+        if (shared != null) {
+            System.arraycopy(shared, from, dst, off, len);
+        } else {
+            digits().read(from, dst, off, len);
+        }
+    }
+
+    @Override
+    public void write(int index, byte[] digits, int from, int to) {
+        digits().write(index, digits, from, to);
+    }
+
+    @Override
+    public void clear() {
+        drop();
+        target.clear();
+    }
+
+    @Override
+    public void rotateLeft() {
+        digits().rotateLeft();
+    }
+
+    @Override
+    public void rotateRight() {
+        digits().rotateRight();
+    }
+
+    @Override
+    public int indexOf(byte value, int from) {
+        if (shared == null) {
+            return digits().indexOf(value, from);
+        }
+        for (int i = from; i < shared.length; i++) {
+            if (shared[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte value) {
+        if (shared == null) {
+            return digits().lastIndexOf(value);
+        }
+        for (int i = shared.length - 1; i >= 0; i--) {
+            if (shared[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void sort(int base, boolean descending) {
+        digits().sort(base, descending);
+    }
+
+    @Override
+    public long capacity() {
+        return target.capacity();
+    }
+
+    @Override
+    public void trimToSize() {
+        digits().trimToSize();
+    }
+
+    @Override
+    public String name() {
+        if (materialized) {
+            return target.name();
+        }
+        return shared != null ? "shared" : "deferred";
+    }
+
+    @Override
+    public void close() {
+        target.close();
+    }
+}
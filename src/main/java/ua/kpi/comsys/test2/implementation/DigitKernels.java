@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+/**
+ * Loops over arrays of digit values, used by bulk operations of lists.<p>
+ *
+ * {@link #INSTANCE} is chosen once at startup: SIMD kernels of the Vector
+ * API when module <tt>jdk.incubator.vector</tt> is available (run with
+ * <tt>--add-modules jdk.incubator.vector</tt>), plain loops otherwise.
+ * SIMD kernels can be switched off with system property
+ * <tt>ua.kpi.comsys.numberlist.vector=false</tt>.
+ */
+interface DigitKernels {
+
+    String VECTOR_PROPERTY = "ua.kpi.comsys.numberlist.vector";
+
+    DigitKernels INSTANCE = select();
+
+    /**
+     * Returns position of the first digit in <tt>[from, to)</tt>, which is
+     * negative or not less than <tt>base</tt>, or -1 if all digits are valid.
+     */
+    int firstInvalid(byte[] digits, int from, int to, int base);
+
+    /**
+     * Adds count of every digit value in <tt>[from, to)</tt> to <tt>counts</tt>.
+     * Digits must be valid for base <tt>counts.length</tt>.
+     */
+    void histogram(byte[] digits, int from, int to, int[] counts);
+
+    /**
+     * Writes characters of digits <tt>[from, to)</tt> ('0'..'9', 'A'..'Z')
+     * as Latin-1 bytes into <tt>out</tt> starting at <tt>off</tt>.
+     * Source and destination may be the same array.
+     */
+    void toAscii(byte[] digits, int from, int to, byte[] out, int off);
+
+    /**
+     * <tt>a[aOff + i] |= b[bOff + i]</tt> for <tt>i</tt> in <tt>[0, len)</tt>.
+     */
+    void or(byte[] a, int aOff, byte[] b, int bOff, int len);
+
+    /**
+     * Name of the implementation (for diagnostics).
+     */
+    String name();
+
+    private static DigitKernels select() {
+        if (Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))) {
+            try {
+                // клас завантажується лише тут, щоб без модуля не було NoClassDefFoundError
+                return (DigitKernels) Class.forName(DigitKernels.class.getPackageName() + ".VectorKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                // Vector API недоступний
+            }
+        }
+        return new ScalarKernels();
+    }
+}
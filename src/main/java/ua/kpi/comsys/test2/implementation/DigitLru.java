@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Map from keys to digit arrays, bounded by the total number of digits and
+ * evicting the least recently used entries.<p>
+ *
+ * Stored arrays are treated as immutable and handed out as they are;
+ * callers must not change them. All methods are thread-safe; counters can
+ * be read without locking.
+ */
+final class DigitLru<K> {
+
+    private final long maxDigits;
+    private final LinkedHashMap<K, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Сума довжин масивів у кеші (порожній масив рахується як одна цифра).
+     */
+    private long digits;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    DigitLru(long maxDigits) {
+        this.maxDigits = maxDigits;
+    }
+
+    private static long weight(byte[] value) {
+        return Math.max(1, value.length);
+    }
+
+    /**
+     * Returns digits stored for the key, or <tt>null</tt>, and counts a hit
+     * or a miss.
+     */
+    synchronized byte[] get(K key) {
+        byte[] value = entries.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Stores digits for the key and evicts the least recently used entries
+     * beyond the limit. Arrays longer than the limit are not stored.
+     *
+     * @return change of the number of cached digits.
+     */
+    synchronized long put(K key, byte[] value) {
+        if (weight(value) > maxDigits) {
+            return 0;
+        }
+        long before = digits;
+        byte[] old = entries.put(key, value);
+        if (old != null) {
+            digits -= weight(old);
+        }
+        digits += weight(value);
+        for (Iterator<Map.Entry<K, byte[]>> it = entries.entrySet().iterator(); digits > maxDigits; ) {
+            digits -= weight(it.next().getValue());
+            it.remove();
+            evictions.increment();
+        }
+        return digits - before;
+    }
+
+    /**
+     * Evicts the least recently used entry.
+     *
+     * @return number of digits removed, 0 if there are no entries.
+     */
+    synchronized long evictEldest() {
+        Iterator<Map.Entry<K, byte[]>> it = entries.entrySet().iterator();
+        if (!it.hasNext()) {
+            return 0;
+        }
+        long removed = weight(it.next().getValue());
+        it.remove();
+        digits -= removed;
+        evictions.increment();
+        return removed;
+    }
+
+    synchronized void remove(K key) {
+        byte[] old = entries.remove(key);
+        if (old != null) {
+            digits -= weight(old);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     *
+     * @return number of digits removed.
+     */
+    synchronized long clear() {
+        long removed = digits;
+        entries.clear();
+        digits = 0;
+        return removed;
+    }
+
+    synchronized long digits() {
+        return digits;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long maxDigits() {
+        return maxDigits;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+}
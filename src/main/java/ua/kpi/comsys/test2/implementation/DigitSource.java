@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+/**
+ * Sequence of digits, most significant first, that can be read in bulk.
+ * Conversions read their input through this interface, so they work on
+ * any storage of digits without copying it first.
+ */
+@FunctionalInterface
+interface DigitSource {
+
+    /**
+     * Copies digits <tt>[from, from + len)</tt> into <tt>dst</tt> starting at <tt>off</tt>.
+     */
+    void read(int from, byte[] dst, int off, int len);
+
+    static DigitSource of(byte[] digits) {
+        return (from, dst, off, len) -> System.arraycopy(digits, from, dst, off, len);
+    }
+}
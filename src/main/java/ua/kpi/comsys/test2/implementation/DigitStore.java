@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+/**
+ * Storage of digits behind <tt>NumberListImpl</tt>.<p>
+ *
+ * Indices passed to a store are already checked by the list. Stores do not
+ * validate digit values either, that is done once by the list.
+ */
+interface DigitStore extends DigitSource, AutoCloseable {
+
+    int size();
+
+    byte get(int index);
+
+    void set(int index, byte value);
+
+    /**
+     * Appends digit to the end.
+     */
+    void add(byte value);
+
+    /**
+     * Inserts digit before position <tt>index</tt> (<tt>index == size()</tt> appends).
+     */
+    void add(int index, byte value);
+
+    /**
+     * Inserts digits <tt>[from, to)</tt> of the array before position <tt>index</tt>.
+     */
+    void addAll(int index, byte[] digits, int from, int to);
+
+    /**
+     * Moves all digits of <tt>source</tt> before position <tt>index</tt>
+     * and leaves <tt>source</tt> empty. Stores of the same layout take over
+     * memory of the source instead of inserting its digits one by one.
+     */
+    default void transferFrom(int index, DigitStore source) {
+        byte[] digits = new byte[source.size()];
+        source.read(0, digits, 0, digits.length);
+        addAll(index, digits, 0, digits.length);
+        source.clear();
+    }
+
+    byte remove(int index);
+
+    /**
+     * Overwrites digits starting at <tt>index</tt> with digits <tt>[from, to)</tt> of the array.
+     */
+    void write(int index, byte[] digits, int from, int to);
+
+    void clear();
+
+    /**
+     * Cyclic shift by one position to the left.
+     */
+    void rotateLeft();
+
+    /**
+     * Cyclic shift by one position to the right.
+     */
+    void rotateRight();
+
+    /**
+     * Returns position of the first digit equal to <tt>value</tt> at or after <tt>from</tt>, or -1.
+     */
+    int indexOf(byte value, int from);
+
+    int lastIndexOf(byte value);
+
+    /**
+     * Sorts digits by counting: a histogram of the digit values, then
+     * ranges filled with each value.
+     */
+    default void sort(int base, boolean descending) {
+        byte[] arr = new byte[size()];
+        read(0, arr, 0, arr.length);
+        int[] counts = new int[base];
+        DigitKernels.INSTANCE.histogram(arr, 0, arr.length, counts);
+        int pos = 0;
+        for (int k = 0; k < base; k++) {
+            int d = descending ? base - 1 - k : k;
+            Arrays.fill(arr, pos, pos + counts[d], (byte) d);
+            pos += counts[d];
+        }
+        write(0, arr, 0, arr.length);
+    }
+
+    /**
+     * Returns number of digit slots the store holds memory for.
+     */
+    long capacity();
+
+    void trimToSize();
+
+    /**
+     * Name of the layout (for diagnostics).
+     */
+    String name();
+
+    /**
+     * Releases memory held outside of the heap. Heap stores do nothing.
+     */
+    @Override
+    default void close() {
+    }
+}
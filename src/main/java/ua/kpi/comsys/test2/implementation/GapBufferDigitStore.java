@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+/**
+ * Heap array of digits with a gap of free slots at the last edited
+ * position.<p>
+ *
+ * Digits <tt>[0, gapStart)</tt> lie before the gap and the rest lie after
+ * <tt>gapEnd</tt>. An insert or remove first moves the gap to its
+ * position, which costs the distance from the previous edit, and then
+ * takes constant time. Edits that stay near one cursor are therefore
+ * cheap, while positional reads stay constant-time.
+ */
+final class GapBufferDigitStore implements DigitStore {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private byte[] buffer = new byte[DEFAULT_CAPACITY];
+    private int gapStart;
+    private int gapEnd = DEFAULT_CAPACITY;
+
+    private int gap() {
+        return gapEnd - gapStart;
+    }
+
+    /**
+     * Переносить розрив так, щоб він починався з позиції index.
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int n = gapStart - index;
+            System.arraycopy(buffer, index, buffer, gapEnd - n, n);
+            gapStart = index;
+            gapEnd -= n;
+        } else if (index > gapStart) {
+            int n = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, n);
+            gapStart = index;
+            gapEnd += n;
+        }
+    }
+
+    private void ensureGap(int required) {
+        if (gap() >= required) {
+            return;
+        }
+        int size = size();
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+            Math.max(size + (long) required, buffer.length + (long) (buffer.length >> 1)));
+        byte[] grown = new byte[capacity];
+        int tail = buffer.length - gapEnd;
+        System.arraycopy(buffer, 0, grown, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, grown, capacity - tail, tail);
+        buffer = grown;
+        gapEnd = capacity - tail;
+    }
+
+    private int slot(int index) {
+        return index < gapStart ? index : index + gap();
+    }
+
+    @Override
+    public int size() {
+        return buffer.length - gap();
+    }
+
+    @Override
+    public byte get(int index) {
+        return buffer[slot(index)];
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        buffer[slot(index)] = value;
+    }
+
+    @Override
+    public void add(byte value) {
+        add(size(), value);
+    }
+
+    @Override
+    public void add(int index, byte value) {
+        moveGap(index);
+        ensureGap(1);
+        buffer[gapStart++] = value;
+    }
+
+    @Override
+    public void addAll(int index, byte[] digits, int from, int to) {
+        int len = to - from;
+        moveGap(index);
+        ensureGap(len);
+        System.arraycopy(digits, from, buffer, gapStart, len);
+        gapStart += len;
+    }
+
+    @Override
+    public byte remove(int index) {
+        moveGap(index);
+        return buffer[gapEnd++];
+    }
+
+    @Override
+    public void read(int from, byte[] dst, int off, int len) {
+        int before = Math.max(0, Math.min(len, gapStart - from));
+        System.arraycopy(buffer, from, dst, off, before);
+        System.arraycopy(buffer, slot(from + before), dst, off + before, len - before);
+    }
+
+    @Override
+    public void write(int index, byte[] digits, int from, int to) {
+        int len = to - from;
+        int before = Math.max(0, Math.min(len, gapStart - index));
+        System.arraycopy(digits, from, buffer, index, before);
+        System.arraycopy(digits, from + before, buffer, slot(index + before), len - before);
+    }
+
+    @Override
+    public void clear() {
+        gapStart = 0;
+        gapEnd = buffer.length;
+    }
+
+    /**
+     * Розрив переноситься в кінець: зсув переставляє одну цифру через нього.
+     */
+    @Override
+    public void rotateLeft() {
+        int size = size();
+        if (size <= 1) return;
+        moveGap(size);
+        byte first = buffer[0];
+        System.arraycopy(buffer, 1, buffer, 0, size - 1);
+        buffer[size - 1] = first;
+    }
+
+    @Override
+    public void rotateRight() {
+        int size = size();
+        if (size <= 1) return;
+        moveGap(0);
+        byte last = buffer[buffer.length - 1];
+        System.arraycopy(buffer, gapEnd, buffer, gapEnd + 1, size - 1);
+        buffer[gapEnd] = last;
+    }
+
+    @Override
+    public int indexOf(byte value, int from) {
+        int size = size();
+        for (int i = from; i < size; i++) {
+            if (buffer[slot(i)] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte value) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (buffer[slot(i)] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public void trimToSize() {
+        int size = size();
+        moveGap(size);
+        buffer = Arrays.copyOf(buffer, Math.max(size, DEFAULT_CAPACITY));
+        gapEnd = buffer.length;
+    }
+
+    @Override
+    public String name() {
+        return "gap-buffer";
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+/**
+ * Doubly linked list of digits with nodes kept in a {@link NodeArena}.<p>
+ *
+ * The node found by the last positional lookup is remembered, so
+ * sequential access by index (and bulk reads of consecutive ranges)
+ * does not walk from the head each time.
+ */
+final class LinkedDigitStore implements DigitStore {
+
+    private static final int NIL = NodeArena.NIL;
+
+    /**
+     * Вузли двозв'язного списку: індекси в масивах арени.
+     */
+    private final NodeArena arena = new NodeArena();
+
+    private int head = NIL;
+    private int tail = NIL;
+    private int size;
+
+    /**
+     * Останній вузол, знайдений за індексом. Послідовний доступ
+     * get(i), get(i + 1), ... починає пошук з нього, а не з голови списку.
+     */
+    private int cursor = NIL;
+    private int cursorIndex;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int node(int index) {
+        int x;
+        int i;
+        if (index < (size >> 1)) {
+            x = head;
+            i = 0;
+        } else {
+            x = tail;
+            i = size - 1;
+        }
+        if (cursor != NIL && Math.abs(cursorIndex - index) < Math.abs(i - index)) {
+            x = cursor;
+            i = cursorIndex;
+        }
+        for (; i < index; i++) {
+            x = arena.next(x);
+        }
+        for (; i > index; i--) {
+            x = arena.prev(x);
+        }
+        cursor = x;
+        cursorIndex = index;
+        return x;
+    }
+
+    @Override
+    public byte get(int index) {
+        return arena.value(node(index));
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        arena.setValue(node(index), value);
+    }
+
+    @Override
+    public void add(byte value) {
+        int newNode = arena.allocate(value);
+        int oldTail = tail;
+        tail = newNode;
+        if (oldTail == NIL) {
+            head = newNode;
+        } else {
+            arena.setNext(oldTail, newNode);
+            arena.setPrev(newNode, oldTail);
+        }
+        size++;
+    }
+
+    @Override
+    public void add(int index, byte value) {
+        if (index == size) {
+            add(value);
+        } else {
+            int succ = node(index);
+            linkBefore(value, succ);
+            cursor = arena.prev(succ);
+        }
+    }
+
+    private void linkBefore(byte value, int succ) {
+        int newNode = arena.allocate(value);
+        int pred = arena.prev(succ);
+        arena.setNext(newNode, succ);
+        arena.setPrev(newNode, pred);
+        arena.setPrev(succ, newNode);
+        if (pred == NIL) {
+            head = newNode;
+        } else {
+            arena.setNext(pred, newNode);
+        }
+        size++;
+    }
+
+    @Override
+    public void addAll(int index, byte[] digits, int from, int to) {
+        if (index == size) {
+            for (int i = from; i < to; i++) {
+                add(digits[i]);
+            }
+            return;
+        }
+        int succ = node(index);
+        for (int i = from; i < to; i++) {
+            linkBefore(digits[i], succ);
+        }
+        cursor = NIL;
+    }
+
+    /**
+     * Takes over nodes of another linked store: pages of its arena are
+     * moved to this one and the chain is linked in at the position, in
+     * time which does not depend on the number of nodes. Short stores are
+     * copied.
+     */
+    @Override
+    public void transferFrom(int index, DigitStore source) {
+        if (!(source instanceof LinkedDigitStore) || source == this
+                || !arena.canAdopt(((LinkedDigitStore) source).arena)) {
+            DigitStore.super.transferFrom(index, source);
+            return;
+        }
+        LinkedDigitStore other = (LinkedDigitStore) source;
+        int count = other.size;
+        int offset = arena.adopt(other.arena);
+        int first = other.head + offset;
+        int last = other.tail + offset;
+        other.head = other.tail = NIL;
+        other.size = 0;
+        other.cursor = NIL;
+
+        int pred = index == size ? tail : arena.prev(node(index));
+        int succ = pred == NIL ? head : arena.next(pred);
+        arena.setPrev(first, pred);
+        arena.setNext(last, succ);
+        if (pred == NIL) {
+            head = first;
+        } else {
+            arena.setNext(pred, first);
+        }
+        if (succ == NIL) {
+            tail = last;
+        } else {
+            arena.setPrev(succ, last);
+        }
+        size += count;
+        cursor = NIL;
+    }
+
+    @Override
+    public byte remove(int index) {
+        int node = node(index);
+        byte old = arena.value(node);
+        int next = arena.next(node);
+        unlink(node);
+        if (next != NIL) {
+            cursor = next;
+            cursorIndex = index;
+        }
+        return old;
+    }
+
+    private void unlink(int node) {
+        int prev = arena.prev(node);
+        int next = arena.next(node);
+
+        if (prev == NIL) {
+            head = next;
+        } else {
+            arena.setNext(prev, next);
+        }
+
+        if (next == NIL) {
+            tail = prev;
+        } else {
+            arena.setPrev(next, prev);
+        }
+        arena.release(node);
+        size--;
+        cursor = NIL;
+    }
+
+    @Override
+    public void read(int from, byte[] dst, int off, int len) {
+        if (len == 0) {
+            return;
+        }
+        int n = node(from);
+        for (int i = 0; i < len - 1; i++, n = arena.next(n)) {
+            dst[off + i] = arena.value(n);
+        }
+        dst[off + len - 1] = arena.value(n);
+        cursor = n;
+        cursorIndex = from + len - 1;
+    }
+
+    @Override
+    public void write(int index, byte[] digits, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        int n = node(index);
+        for (int i = from; i < to - 1; i++, n = arena.next(n)) {
+            arena.setValue(n, digits[i]);
+        }
+        arena.setValue(n, digits[to - 1]);
+        cursor = n;
+        cursorIndex = index + (to - from) - 1;
+    }
+
+    @Override
+    public void clear() {
+        arena.reset();
+        head = tail = NIL;
+        size = 0;
+        cursor = NIL;
+    }
+
+    @Override
+    public void rotateLeft() {
+        if (size <= 1) return;
+        int oldHead = head;
+        int newHead = arena.next(head);
+
+        arena.setPrev(newHead, NIL);
+        head = newHead;
+
+        arena.setNext(tail, oldHead);
+        arena.setPrev(oldHead, tail);
+        arena.setNext(oldHead, NIL);
+        tail = oldHead;
+        cursor = NIL;
+    }
+
+    @Override
+    public void rotateRight() {
+        if (size <= 1) return;
+        int oldTail = tail;
+        int newTail = arena.prev(tail);
+
+        arena.setNext(newTail, NIL);
+        tail = newTail;
+
+        arena.setPrev(oldTail, NIL);
+        arena.setNext(oldTail, head);
+        arena.setPrev(head, oldTail);
+        head = oldTail;
+        cursor = NIL;
+    }
+
+    @Override
+    public int indexOf(byte value, int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int idx = from;
+        for (int n = node(from); n != NIL; n = arena.next(n)) {
+            if (arena.value(n) == value) {
+                cursor = n;
+                cursorIndex = idx;
+                return idx;
+            }
+            idx++;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte value) {
+        int idx = size - 1;
+        for (int n = tail; n != NIL; n = arena.prev(n)) {
+            if (arena.value(n) == value) {
+                return idx;
+            }
+            idx--;
+        }
+        return -1;
+    }
+
+    @Override
+    public long capacity() {
+        return arena.capacity();
+    }
+
+    @Override
+    public void trimToSize() {
+        arena.compact(head);
+        if (size == 0) {
+            head = tail = NIL;
+        } else {
+            head = 0;
+            tail = size - 1;
+        }
+        cursor = NIL;
+    }
+
+    @Override
+    public String name() {
+        return "linked";
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.NumberList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <tt>NumberList</tt> whose digits stay in a memory-mapped file.<p>
+ *
+ * The file holds digits of the number as characters, one byte per digit,
+ * most significant first: the same text {@link NumberListImpl#toString()}
+ * and {@link NumberListImpl#writeTo(OutputStream)} produce. Trailing line
+ * breaks are ignored. Opening a file only maps it, so it takes the same
+ * time for any size; pages are read by the operating system when digits
+ * on them are accessed, and characters are checked only when they are
+ * read.<p>
+ *
+ * The size of the list is fixed by the size of the file: <tt>set</tt>,
+ * <tt>swap</tt>, sorts and shifts write through the mapping, while
+ * <tt>add</tt> and <tt>remove</tt> throw
+ * <tt>UnsupportedOperationException</tt>. Changes reach the disk not
+ * later than {@link #force()} returns. The mapping is released by
+ * {@link #close()}.
+ */
+public final class MappedNumberList extends AbstractList<Byte> implements NumberList, AutoCloseable {
+
+    /**
+     * Значення цифри за її символом, -1 для інших символів.
+     */
+    private static final byte[] VALUES = new byte[256];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int d = 0; d < Radix.DIGIT_CHARS.length; d++) {
+            VALUES[Radix.DIGIT_CHARS[d]] = (byte) d;
+            VALUES[Character.toLowerCase(Radix.DIGIT_CHARS[d])] = (byte) d;
+        }
+    }
+
+    /**
+     * Розмір блоку при копіюванні цифр зі сторінок відображення.
+     */
+    private static final int BLOCK = 8192;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int base;
+    private final int size;
+    private final boolean writable;
+
+    private MappedNumberList(Arena arena, MemorySegment segment, int base, int size, boolean writable) {
+        this.arena = arena;
+        this.segment = segment;
+        this.base = base;
+        this.size = size;
+        this.writable = writable;
+    }
+
+    /**
+     * Maps file with digits of a number in the given scale of notation.
+     *
+     * @param file - file with digit characters.
+     * @param base - scale of notation of the digits, from 2 to 36.
+     * @param writable - whether changes of the list are written to the file.
+     * @return list backed by the file.
+     */
+    public static MappedNumberList open(Path file, int base, boolean writable) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        Radix.of(base);
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = writable
+            ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(
+                writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, channel.size(), arena);
+            long length = segment.byteSize();
+            while (length > 0 && isLineBreak(segment.get(ValueLayout.JAVA_BYTE, length - 1))) {
+                length--;
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File " + file + " has more digits than a list can hold");
+            }
+            return new MappedNumberList(arena, segment, base, (int) length, writable);
+        } catch (IOException e) {
+            arena.close();
+            throw new RuntimeException("Unable to map number file", e);
+        } catch (RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes digits of the list into a new file (replacing an existing one)
+     * and maps it for reading and writing.
+     *
+     * @param file - file to create.
+     * @param digits - number to store.
+     * @return list backed by the new file.
+     */
+    public static MappedNumberList create(Path file, NumberListImpl digits) {
+        if (file == null || digits == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            digits.writeTo(out);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create number file", e);
+        }
+        return open(file, digits.getBase(), true);
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * Returns scale of notation of the list.
+     *
+     * @return base of the list, from 2 to 36.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    private byte digitAt(long index) {
+        byte c = segment.get(ValueLayout.JAVA_BYTE, index);
+        byte d = VALUES[c & 0xFF];
+        if (d < 0 || d >= base) {
+            throw new IllegalStateException(
+                "Character '" + (char) (c & 0xFF) + "' at position " + index + " is not a digit of base " + base);
+        }
+        return d;
+    }
+
+    /**
+     * Читає цифри [from, from + len) у dst, перетворюючи символи на значення.
+     */
+    private void readDigits(int from, byte[] dst, int off, int len) {
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, from, dst, off, len);
+        for (int i = off; i < off + len; i++) {
+            byte d = VALUES[dst[i] & 0xFF];
+            if (d < 0 || d >= base) {
+                digitAt(from + i - off);
+            }
+            dst[i] = d;
+        }
+    }
+
+    private void checkWritable() {
+        if (!writable) {
+            throw new UnsupportedOperationException("List is mapped read-only");
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Byte get(int index) {
+        Objects.checkIndex(index, size);
+        return digitAt(index);
+    }
+
+    @Override
+    public Byte set(int index, Byte element) {
+        if (element == null) {
+            throw new NullPointerException("Digit cannot be null");
+        }
+        byte v = element;
+        if (v < 0 || v >= base) {
+            throw new IllegalArgumentException("Digit " + v + " is out of range for base " + base);
+        }
+        Objects.checkIndex(index, size);
+        checkWritable();
+        byte old = digitAt(index);
+        segment.set(ValueLayout.JAVA_BYTE, index, (byte) Radix.DIGIT_CHARS[v]);
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Byte)) {
+            return -1;
+        }
+        byte v = (Byte) o;
+        if (v < 0 || v >= base) {
+            return -1;
+        }
+        byte upper = (byte) Radix.DIGIT_CHARS[v];
+        byte lower = (byte) Character.toLowerCase(Radix.DIGIT_CHARS[v]);
+        for (long i = 0; i < size; i++) {
+            byte c = segment.get(ValueLayout.JAVA_BYTE, i);
+            if (c == upper || c == lower) {
+                return (int) i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        if (index1 == index2) {
+            return true;
+        }
+        Objects.checkIndex(index1, size);
+        Objects.checkIndex(index2, size);
+        checkWritable();
+        byte a = segment.get(ValueLayout.JAVA_BYTE, index1);
+        segment.set(ValueLayout.JAVA_BYTE, index1, segment.get(ValueLayout.JAVA_BYTE, index2));
+        segment.set(ValueLayout.JAVA_BYTE, index2, a);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void sortAscending() {
+        sort(false);
+    }
+
+    @Override
+    public void sortDescending() {
+        sort(true);
+    }
+
+    /**
+     * Сортування підрахунком: один прохід для гістограми, другий
+     * заповнює діапазони символів прямо у відображенні.
+     */
+    private void sort(boolean descending) {
+        if (size <= 1) {
+            return;
+        }
+        checkWritable();
+        int[] counts = new int[base];
+        byte[] block = new byte[Math.min(size, BLOCK)];
+        for (int from = 0; from < size; from += block.length) {
+            int len = Math.min(block.length, size - from);
+            readDigits(from, block, 0, len);
+            DigitKernels.INSTANCE.histogram(block, 0, len, counts);
+        }
+        long pos = 0;
+        for (int k = 0; k < base; k++) {
+            int d = descending ? base - 1 - k : k;
+            segment.asSlice(pos, counts[d]).fill((byte) Radix.DIGIT_CHARS[d]);
+            pos += counts[d];
+        }
+        modCount++;
+    }
+
+    @Override
+    public void shiftLeft() {
+        if (size <= 1) return;
+        checkWritable();
+        byte first = segment.get(ValueLayout.JAVA_BYTE, 0);
+        MemorySegment.copy(segment, 1, segment, 0, size - 1L);
+        segment.set(ValueLayout.JAVA_BYTE, size - 1L, first);
+        modCount++;
+    }
+
+    @Override
+    public void shiftRight() {
+        if (size <= 1) return;
+        checkWritable();
+        byte last = segment.get(ValueLayout.JAVA_BYTE, size - 1L);
+        MemorySegment.copy(segment, 0, segment, 1, size - 1L);
+        segment.set(ValueLayout.JAVA_BYTE, 0, last);
+        modCount++;
+    }
+
+    /**
+     * Writes changes of the list to the file. Does nothing for read-only
+     * mappings.
+     */
+    public void force() {
+        if (writable) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Copies digits into a new list in memory.
+     *
+     * @return <tt>NumberListImpl</tt> with the same digits and base.
+     */
+    public NumberListImpl toNumberList() {
+        return toNumberList(NumberListImpl.Storage.LINKED);
+    }
+
+    /**
+     * Copies digits into a new list in memory of the given kind.
+     *
+     * @param storage - where digits of the new list are kept.
+     * @return <tt>NumberListImpl</tt> with the same digits and base.
+     */
+    public NumberListImpl toNumberList(NumberListImpl.Storage storage) {
+        NumberListImpl list = NumberListImpl.empty(base, storage);
+        byte[] block = new byte[Math.min(size, BLOCK)];
+        for (int from = 0; from < size; from += block.length) {
+            int len = Math.min(block.length, size - from);
+            readDigits(from, block, 0, len);
+            list.appendDigits(block, 0, len);
+        }
+        return list;
+    }
+
+    /**
+     * Returns string representation of the number in <b>decimal</b> scale
+     * of notation. Digits are read from the mapping block by block.
+     *
+     * @return string representation in <b>decimal</b> scale.
+     */
+    public String toDecimalString() {
+        if (size == 0) {
+            return "0";
+        }
+        return Radix.of(base).toBigInteger(this::readDigits, 0, size).toString();
+    }
+
+    /**
+     * Releases the mapping. Unsaved changes may be lost unless
+     * {@link #force()} was called; the list must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+}
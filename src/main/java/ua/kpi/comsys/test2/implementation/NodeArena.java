@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+/**
+ * Storage for nodes of a doubly linked list of digits.<p>
+ *
+ * A node is an index: its high bits select a page and its low
+ * {@value #PAGE_BITS} bits a slot in the parallel arrays of values and
+ * links of the page; {@link #NIL} stands for the absent node. Arrays of a
+ * page grow on demand up to {@link #PAGE_SIZE} slots, so small lists take
+ * little memory. Released nodes go to a free list (linked through
+ * <tt>next</tt>) and are reused by the following allocations, so refilling
+ * a list does not allocate objects. {@link #reset()} releases all nodes at
+ * once.<p>
+ *
+ * Links are kept relative to the start of the page of the node which
+ * holds them. A run of pages therefore stays consistent wherever it is
+ * placed in the page table, which lets {@link #adopt(NodeArena)} take over
+ * all nodes of another arena by moving its page references, without
+ * touching nodes.
+ */
+final class NodeArena {
+
+    static final int NIL = -1;
+
+    static final int PAGE_BITS = 16;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    /**
+     * Арени з меншою кількістю вузлів дешевше скопіювати, ніж забирати
+     * їхні сторінки.
+     */
+    static final int MIN_ADOPTED = 1024;
+
+    private static final int SLOT_MASK = PAGE_SIZE - 1;
+
+    /**
+     * Номери вузлів мають бути невід'ємними int.
+     */
+    private static final int MAX_PAGES = 1 << (31 - PAGE_BITS);
+
+    /**
+     * Значення посилання "немає вузла"; відносне посилання ним бути не може.
+     */
+    private static final int NO_LINK = Integer.MIN_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private byte[][] values;
+    private int[][] prev;
+    private int[][] next;
+    private int pages;
+
+    /**
+     * Сторінка, з якої видаються нові вузли, і кількість уже виданих
+     * місць у ній; місця сторінок до неї хоча б раз видавались.
+     */
+    private int page;
+    private int used;
+
+    private int free = NIL;
+    private int freeTail = NIL;
+    private int live;
+
+    NodeArena() {
+        init(DEFAULT_CAPACITY);
+    }
+
+    private void init(int capacity) {
+        values = new byte[][] {new byte[capacity]};
+        prev = new int[][] {new int[capacity]};
+        next = new int[][] {new int[capacity]};
+        pages = 1;
+        page = 0;
+        used = 0;
+        free = NIL;
+        freeTail = NIL;
+        live = 0;
+    }
+
+    byte value(int node) {
+        return values[node >>> PAGE_BITS][node & SLOT_MASK];
+    }
+
+    void setValue(int node, byte value) {
+        values[node >>> PAGE_BITS][node & SLOT_MASK] = value;
+    }
+
+    int next(int node) {
+        return target(node, next[node >>> PAGE_BITS][node & SLOT_MASK]);
+    }
+
+    int prev(int node) {
+        return target(node, prev[node >>> PAGE_BITS][node & SLOT_MASK]);
+    }
+
+    void setNext(int node, int target) {
+        next[node >>> PAGE_BITS][node & SLOT_MASK] = link(node, target);
+    }
+
+    void setPrev(int node, int target) {
+        prev[node >>> PAGE_BITS][node & SLOT_MASK] = link(node, target);
+    }
+
+    private static int target(int node, int link) {
+        return link == NO_LINK ? NIL : (node & ~SLOT_MASK) + link;
+    }
+
+    private static int link(int node, int target) {
+        return target == NIL ? NO_LINK : target - (node & ~SLOT_MASK);
+    }
+
+    /**
+     * Returns new unlinked node holding the value.
+     */
+    int allocate(byte value) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = next(node);
+            if (free == NIL) {
+                freeTail = NIL;
+            }
+        } else {
+            if (used == values[page].length) {
+                nextSlots();
+            }
+            node = page << PAGE_BITS | used++;
+        }
+        setValue(node, value);
+        prev[node >>> PAGE_BITS][node & SLOT_MASK] = NO_LINK;
+        next[node >>> PAGE_BITS][node & SLOT_MASK] = NO_LINK;
+        live++;
+        return node;
+    }
+
+    /**
+     * Makes room for the next new node: uses the following page if there
+     * is one, grows the current page, or adds a page.
+     */
+    private void nextSlots() {
+        int length = values[page].length;
+        if (page + 1 < pages) {
+            page++;
+            used = 0;
+        } else if (length < PAGE_SIZE) {
+            int capacity = Math.min(PAGE_SIZE, length + (length >> 1));
+            values[page] = Arrays.copyOf(values[page], capacity);
+            prev[page] = Arrays.copyOf(prev[page], capacity);
+            next[page] = Arrays.copyOf(next[page], capacity);
+        } else {
+            if (pages == MAX_PAGES) {
+                throw new IllegalStateException("Too many nodes");
+            }
+            ensurePages(pages + 1);
+            values[pages] = new byte[DEFAULT_CAPACITY];
+            prev[pages] = new int[DEFAULT_CAPACITY];
+            next[pages] = new int[DEFAULT_CAPACITY];
+            page = pages++;
+            used = 0;
+        }
+    }
+
+    private void ensurePages(int count) {
+        if (count > values.length) {
+            int capacity = Math.max(count, values.length << 1);
+            values = Arrays.copyOf(values, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+    }
+
+    /**
+     * Returns node to the free list. The node must be already unlinked.
+     */
+    void release(int node) {
+        setNext(node, free);
+        if (free == NIL) {
+            freeTail = node;
+        }
+        free = node;
+        live--;
+    }
+
+    /**
+     * Releases all nodes in constant time, keeping the capacity.
+     */
+    void reset() {
+        page = 0;
+        used = 0;
+        free = NIL;
+        freeTail = NIL;
+        live = 0;
+    }
+
+    /**
+     * Returns whether {@link #adopt(NodeArena)} may take over nodes of the
+     * other arena; otherwise its digits should be copied.
+     */
+    boolean canAdopt(NodeArena other) {
+        return other.live >= MIN_ADOPTED && page + 1 + other.pages <= MAX_PAGES;
+    }
+
+    /**
+     * Moves all pages of the other arena behind the current page of this
+     * one and leaves the other arena empty. Node <tt>n</tt> of the other
+     * arena becomes node <tt>n + offset</tt> here; no node is copied or
+     * changed, and the cost depends only on the number of pages.
+     * Unused pages of this arena after the current one are dropped.
+     *
+     * @return offset added to node indices of the other arena.
+     */
+    int adopt(NodeArena other) {
+        int first = page + 1;
+        int offset = first << PAGE_BITS;
+        if (pages > first) {
+            Arrays.fill(values, first, pages, null);
+            Arrays.fill(prev, first, pages, null);
+            Arrays.fill(next, first, pages, null);
+        }
+        ensurePages(first + other.pages);
+        System.arraycopy(other.values, 0, values, first, other.pages);
+        System.arraycopy(other.prev, 0, prev, first, other.pages);
+        System.arraycopy(other.next, 0, next, first, other.pages);
+        pages = first + other.pages;
+        if (other.free != NIL) {
+            // відносні посилання всередині сторінок іншої арени лишаються чинними
+            if (free == NIL) {
+                free = other.free + offset;
+            } else {
+                setNext(freeTail, other.free + offset);
+            }
+            freeTail = other.freeTail + offset;
+        }
+        page = first + other.page;
+        used = other.used;
+        live += other.live;
+        other.init(DEFAULT_CAPACITY);
+        return offset;
+    }
+
+    long capacity() {
+        long total = 0;
+        for (int i = 0; i < pages; i++) {
+            total += values[i].length;
+        }
+        return total;
+    }
+
+    /**
+     * Moves live nodes of the list starting at <tt>head</tt> to the
+     * beginning of the pages in list order and shrinks the arrays to fit.
+     * All node indices change: the list head becomes 0 and node
+     * <tt>i</tt> is followed by node <tt>i + 1</tt>.
+     */
+    void compact(int head) {
+        int count = live;
+        int newPages = Math.max(1, (count + PAGE_SIZE - 1) >>> PAGE_BITS);
+        byte[][] newValues = new byte[newPages][];
+        int[][] newPrev = new int[newPages][];
+        int[][] newNext = new int[newPages][];
+        for (int p = 0; p < newPages; p++) {
+            int length = p < newPages - 1 ? PAGE_SIZE : Math.max(count - (p << PAGE_BITS), DEFAULT_CAPACITY);
+            newValues[p] = new byte[length];
+            newPrev[p] = new int[length];
+            newNext[p] = new int[length];
+        }
+        int i = 0;
+        for (int n = head; n != NIL; n = next(n), i++) {
+            int p = i >>> PAGE_BITS;
+            int slot = i & SLOT_MASK;
+            newValues[p][slot] = value(n);
+            // сусідні вузли i - 1 та i + 1 відстоять від початку сторінки i на slot -/+ 1
+            newPrev[p][slot] = i == 0 ? NO_LINK : slot - 1;
+            newNext[p][slot] = slot + 1;
+        }
+        if (i > 0) {
+            newNext[(i - 1) >>> PAGE_BITS][(i - 1) & SLOT_MASK] = NO_LINK;
+        }
+        values = newValues;
+        prev = newPrev;
+        next = newNext;
+        pages = newPages;
+        page = (Math.max(i, 1) - 1) >>> PAGE_BITS;
+        used = i - (page << PAGE_BITS);
+        free = NIL;
+        freeTail = NIL;
+        live = i;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+/**
+ * Loader of numbers from files, which remembers converted digits of the
+ * files it has read.<p>
+ *
+ * Entries are keyed by canonical path, size and last-modified time of the
+ * file and by the scale of notation, so a changed file is read again. (A
+ * file rewritten with the same size within the resolution of the file
+ * system clock is not noticed.) The cache is bounded by the total number
+ * of cached digits and evicts the least recently used files first.<p>
+ *
+ * Every load returns a new list. Lists loaded from one entry share its
+ * digits: they are read in place, and a list copies them into its own
+ * storage only when it is changed, so changing a loaded list affects
+ * neither the cache nor other lists. Conversions of such a list (e.g.
+ * {@link NumberListImpl#toDecimalString()}) do not copy the digits.<p>
+ *
+ * The cache is thread-safe. Files are read outside of the lock, so two
+ * threads missing the same file at once may both read it.
+ */
+public final class NumberFileCache {
+
+    private final DigitLru<Key> entries;
+
+    /**
+     * Constructs empty cache.
+     *
+     * @param maxDigits - maximum total number of cached digits.
+     */
+    public NumberFileCache(long maxDigits) {
+        if (maxDigits <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxDigits);
+        }
+        this.entries = new DigitLru<>(maxDigits);
+    }
+
+    /**
+     * Loads a number like {@link NumberListImpl#NumberListImpl(File)}.
+     *
+     * @param file - file where number is stored.
+     * @return new list; empty if the file does not exist.
+     */
+    public NumberListImpl load(File file) {
+        return load(file, 10, Storage.LINKED);
+    }
+
+    /**
+     * Loads a <b>decimal</b> number from file into the specified scale of
+     * notation.
+     *
+     * @param file - file where number is stored.
+     * @param base - scale of notation of the list, from 2 to 36.
+     * @param storage - where digits of the list are kept once it is changed.
+     * @return new list; empty if the file does not exist or is blank.
+     */
+    public NumberListImpl load(File file, int base, Storage storage) {
+        Radix.of(base);
+        if (file == null || storage == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        try {
+            Key key = Key.of(file, base);
+            if (key == null) {
+                return NumberListImpl.empty(base, storage);
+            }
+            byte[] digits = entries.get(key);
+            if (digits == null) {
+                digits = read(key.path, base);
+                // файл змінився під час читання: не кешуємо
+                if (key.equals(Key.of(file, base))) {
+                    entries.put(key, digits);
+                }
+            }
+            return NumberListImpl.shared(digits, base, storage);
+        } catch (NoSuchFileException e) {
+            return NumberListImpl.empty(base, storage);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read number from file", e);
+        }
+    }
+
+    private static byte[] read(Path path, int base) throws IOException {
+        String content = Files.readString(path, StandardCharsets.UTF_8).trim();
+        if (content.isEmpty()) {
+            return new byte[0];
+        }
+        NumberListImpl list = NumberListImpl.of(content, base, Storage.PACKED);
+        byte[] digits = new byte[list.size()];
+        list.readDigits(0, digits, 0, digits.length);
+        return digits;
+    }
+
+    /**
+     * Removes entries of all files.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns number of loads answered from the cache.
+     */
+    public long getHitCount() {
+        return entries.hits();
+    }
+
+    /**
+     * Returns number of loads which read the file.
+     */
+    public long getMissCount() {
+        return entries.misses();
+    }
+
+    /**
+     * Returns share of loads answered from the cache, from 0 to 1.
+     */
+    public double getHitRate() {
+        long hits = entries.hits();
+        long total = hits + entries.misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns number of entries removed to stay within the limit.
+     */
+    public long getEvictionCount() {
+        return entries.evictions();
+    }
+
+    /**
+     * Returns total number of cached digits.
+     */
+    public long getDigits() {
+        return entries.digits();
+    }
+
+    /**
+     * Returns number of cached files.
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxDigits() {
+        return entries.maxDigits();
+    }
+
+    @Override
+    public String toString() {
+        return "NumberFileCache[entries=" + getEntryCount() + ", digits=" + getDigits()
+            + ", hitRate=" + getHitRate() + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    /**
+     * Файл, яким він був на момент читання.
+     */
+    private static final class Key {
+        private final Path path;
+        private final long size;
+        private final FileTime modified;
+        private final int base;
+
+        private Key(Path path, long size, FileTime modified, int base) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.base = base;
+        }
+
+        /**
+         * @return ключ або null, якщо це не звичайний файл.
+         */
+        static Key of(File file, int base) throws IOException {
+            Path path = file.getCanonicalFile().toPath();
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            return new Key(path, attributes.size(), attributes.lastModifiedTime(), base);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return size == other.size && base == other.base
+                && path.equals(other.path) && modified.equals(other.modified);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, modified, base);
+        }
+    }
+}
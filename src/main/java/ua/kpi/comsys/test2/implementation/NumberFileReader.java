@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader of a file with many decimal numbers, one per line.<p>
+ *
+ * The file is memory-mapped and read through a <tt>Spliterator</tt>
+ * which splits it in halves at line boundaries, so a parallel stream
+ * parses parts of the file on all cores without reading it first. Lines
+ * are parsed straight from the mapping, with the same rules as
+ * {@link NumberListImpl#NumberListImpl(String)}: surrounding whitespace
+ * and a leading '+' are ignored. Blank lines are skipped. A line with a
+ * minus sign or any other character than decimal digits is not turned
+ * into a list: it is reported to the error handler as a
+ * {@link LineError} and reading goes on with the next line.<p>
+ *
+ * Streams must be consumed before the reader is closed.
+ */
+public final class NumberFileReader implements AutoCloseable {
+
+    /**
+     * Частини, менші за це, не діляться далі.
+     */
+    private static final long MIN_SPLIT = 1 << 16;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int base;
+    private final Storage storage;
+    private final LongAdder errors = new LongAdder();
+
+    private NumberFileReader(Arena arena, MemorySegment segment, int base, Storage storage) {
+        this.arena = arena;
+        this.segment = segment;
+        this.base = base;
+        this.storage = storage;
+    }
+
+    /**
+     * Maps the file. Numbers are converted into the main scale of
+     * notation, as by {@link NumberListImpl#NumberListImpl(String)}.
+     *
+     * @param file - file with one decimal number per line.
+     * @return reader of the file.
+     */
+    public static NumberFileReader open(Path file) {
+        return open(file, 3, Storage.LINKED);
+    }
+
+    /**
+     * Maps the file.
+     *
+     * @param file - file with one decimal number per line.
+     * @param base - scale of notation of the lists, from 2 to 36.
+     * @param storage - where digits of the lists are kept.
+     * @return reader of the file.
+     */
+    public static NumberFileReader open(Path file, int base, Storage storage) {
+        if (file == null || storage == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        Radix.of(base);
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new NumberFileReader(arena, segment, base, storage);
+        } catch (IOException e) {
+            arena.close();
+            throw new RuntimeException("Unable to map number file", e);
+        }
+    }
+
+    /**
+     * Returns a parallel stream of numbers of the file, in file order.
+     * Invalid lines are skipped and only counted.
+     *
+     * @return numbers of valid lines.
+     * @see #getErrorCount()
+     */
+    public Stream<NumberListImpl> stream() {
+        return stream(error -> { });
+    }
+
+    /**
+     * Returns a parallel stream of numbers of the file, in file order.
+     *
+     * @param onError - receives invalid lines; it may be called from
+     *                several threads at once.
+     * @return numbers of valid lines.
+     */
+    public Stream<NumberListImpl> stream(Consumer<? super LineError> onError) {
+        if (onError == null) {
+            throw new IllegalArgumentException("Error handler cannot be null");
+        }
+        return StreamSupport.stream(new LineSpliterator(0, segment.byteSize(), onError), true);
+    }
+
+    /**
+     * Returns number of invalid lines met by all streams of the reader.
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Returns 1-based number of the line which starts at the given
+     * position. Counts line breaks before it, so it is meant for error
+     * messages rather than for every line.
+     *
+     * @param offset - position of the first byte of a line.
+     * @return line number.
+     */
+    public long lineNumber(long offset) {
+        long line = 1;
+        for (long i = 0; i < offset; i++) {
+            if (segment.get(ValueLayout.JAVA_BYTE, i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Releases the mapping.
+     */
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+    private long nextLineBreak(long from, long end) {
+        for (long i = from; i < end; i++) {
+            if (segment.get(ValueLayout.JAVA_BYTE, i) == '\n') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Розбирає рядок [from, to); null для порожнього рядка.
+     */
+    private NumberListImpl parse(long from, long to) {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Number is too long");
+        }
+        // індекси в межах рядка — int: C2 у JDK 21.0.1 падає на long-арифметиці
+        // з індексами відображення (SubLNode::Ideal)
+        MemorySegment line = segment.asSlice(from, to - from);
+        int start = 0;
+        int end = (int) line.byteSize();
+        while (start < end && (line.get(ValueLayout.JAVA_BYTE, start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (line.get(ValueLayout.JAVA_BYTE, end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        byte first = line.get(ValueLayout.JAVA_BYTE, start);
+        if (first == '-') {
+            throw new IllegalArgumentException("Negative numbers are not supported");
+        }
+        if (first == '+') {
+            start++;
+        }
+        byte[] decimal = new byte[end - start];
+        if (decimal.length == 0) {
+            throw new IllegalArgumentException("Number has no digits");
+        }
+        MemorySegment.copy(line, ValueLayout.JAVA_BYTE, start, decimal, 0, decimal.length);
+        for (int i = 0; i < decimal.length; i++) {
+            int d = decimal[i] - '0';
+            if (d < 0 || d > 9) {
+                throw new IllegalArgumentException(
+                    "Character '" + (char) (decimal[i] & 0xFF) + "' at position " + (from + start + i) + " is not a decimal digit");
+            }
+            decimal[i] = (byte) d;
+        }
+        NumberListImpl list = NumberListImpl.empty(base, storage);
+        byte[] digits = Radix.of(base).fromDecimal(decimal, 0, decimal.length);
+        list.appendDigits(digits, 0, digits.length);
+        return list;
+    }
+
+    private String text(long from, long to) {
+        byte[] bytes = new byte[(int) Math.min(to - from, 256)];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, from, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Line which could not be parsed.
+     */
+    public static final class LineError {
+        private final long offset;
+        private final String text;
+        private final RuntimeException error;
+
+        LineError(long offset, String text, RuntimeException error) {
+            this.offset = offset;
+            this.text = text;
+            this.error = error;
+        }
+
+        /**
+         * Returns position of the first byte of the line in the file.
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Returns the line (at most 256 first characters of it).
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * Returns the exception which tells why the line was rejected.
+         */
+        public RuntimeException getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Line at " + offset + ": " + error.getMessage();
+        }
+    }
+
+    /**
+     * Рядки файлу в діапазоні [pos, end); межі діапазону завжди на
+     * початках рядків.
+     */
+    private final class LineSpliterator implements Spliterator<NumberListImpl> {
+        private long pos;
+        private final long end;
+        private final Consumer<? super LineError> onError;
+
+        LineSpliterator(long pos, long end, Consumer<? super LineError> onError) {
+            this.pos = pos;
+            this.end = end;
+            this.onError = onError;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super NumberListImpl> action) {
+            while (pos < end) {
+                long start = pos;
+                long lineEnd = nextLineBreak(start, end);
+                pos = Math.min(lineEnd + 1, end);
+                NumberListImpl list;
+                try {
+                    list = parse(start, lineEnd);
+                } catch (RuntimeException e) {
+                    errors.increment();
+                    onError.accept(new LineError(start, text(start, lineEnd), e));
+                    continue;
+                }
+                if (list != null) {
+                    action.accept(list);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<NumberListImpl> trySplit() {
+            if (end - pos < MIN_SPLIT) {
+                return null;
+            }
+            long lineBreak = nextLineBreak(pos + (end - pos) / 2, end);
+            if (lineBreak + 1 >= end) {
+                return null;
+            }
+            LineSpliterator prefix = new LineSpliterator(pos, lineBreak + 1, onError);
+            pos = lineBreak + 1;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - pos;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
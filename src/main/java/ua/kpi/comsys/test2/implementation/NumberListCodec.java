@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compact binary form of <tt>NumberListImpl</tt>.<p>
+ *
+ * A number is written as its base (one byte), the count of digits (a
+ * varint) and the digits themselves, most significant first, packed into
+ * the smallest number of bits that holds <tt>base - 1</tt>: 2 bits per
+ * ternary digit, 3 per octal digit, 4 per decimal one. The last byte is
+ * padded with zero bits. Digits are copied as they are, so reading gives
+ * back the same list without any conversion between bases.<p>
+ *
+ * Varints are unsigned LEB128: seven bits per byte, least significant
+ * group first, high bit set on every byte but the last.<p>
+ *
+ * Many numbers are sent over one stream as frames: the length of the
+ * encoded number (a varint) followed by the encoded number. Frames are
+ * written by {@link FrameWriter} and read either from a
+ * <tt>DataInput</tt> with {@link #readFrame(DataInput)} or, without
+ * copying, straight from a <tt>ByteBuffer</tt> (e.g. a mapped file) with
+ * {@link FrameReader}.
+ */
+public final class NumberListCodec {
+
+    /**
+     * Розмір блоку цифр при пакуванні і розпакуванні.
+     */
+    private static final int BLOCK = 8192;
+
+    private NumberListCodec() {
+    }
+
+    /**
+     * Returns number of bits per digit for the given base.
+     *
+     * @param base - scale of notation, from 2 to 36.
+     * @return bits that hold any digit of the base.
+     */
+    public static int bitsPerDigit(int base) {
+        Radix.of(base);
+        return 32 - Integer.numberOfLeadingZeros(base - 1);
+    }
+
+    /**
+     * Returns number of bytes {@link #write(NumberListImpl, DataOutput)}
+     * writes for the list.
+     *
+     * @param list - number to encode.
+     * @return size of the encoded number.
+     */
+    public static long encodedSize(NumberListImpl list) {
+        int size = list.size();
+        return 1 + varintSize(size) + packedSize(size, bitsPerDigit(list.getBase()));
+    }
+
+    private static long packedSize(int digits, int bits) {
+        return ((long) digits * bits + 7) / 8;
+    }
+
+    /**
+     * Writes the list in the compact form.
+     *
+     * @param list - number to encode.
+     * @param out - destination.
+     * @throws IOException if <tt>out</tt> fails to write.
+     */
+    public static void write(NumberListImpl list, DataOutput out) throws IOException {
+        if (list == null || out == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        int base = list.getBase();
+        int bits = bitsPerDigit(base);
+        int size = list.size();
+        out.writeByte(base);
+        writeVarint(out, size);
+
+        byte[] digits = new byte[Math.min(size, BLOCK)];
+        byte[] packed = new byte[(int) packedSize(digits.length, bits) + 1];
+        long acc = 0;
+        int pending = 0;
+        for (int from = 0; from < size; from += digits.length) {
+            int len = Math.min(digits.length, size - from);
+            list.readDigits(from, digits, 0, len);
+            int n = 0;
+            for (int i = 0; i < len; i++) {
+                acc = acc << bits | digits[i];
+                pending += bits;
+                if (pending >= 8) {
+                    pending -= 8;
+                    packed[n++] = (byte) (acc >>> pending);
+                }
+            }
+            out.write(packed, 0, n);
+        }
+        if (pending > 0) {
+            out.writeByte((int) (acc << (8 - pending)));
+        }
+    }
+
+    /**
+     * Reads a list written by {@link #write(NumberListImpl, DataOutput)}.
+     * The list uses the default storage.
+     *
+     * @param in - source.
+     * @return decoded list.
+     * @throws IOException if <tt>in</tt> fails to read or holds no valid number.
+     */
+    public static NumberListImpl read(DataInput in) throws IOException {
+        return read(in, Storage.LINKED);
+    }
+
+    /**
+     * Reads a list written by {@link #write(NumberListImpl, DataOutput)}.
+     *
+     * @param in - source.
+     * @param storage - where digits of the new list are kept.
+     * @return decoded list.
+     * @throws IOException if <tt>in</tt> fails to read or holds no valid number.
+     */
+    public static NumberListImpl read(DataInput in, Storage storage) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+        NumberListImpl list = NumberListImpl.empty(readBase(in), storage);
+        try {
+            readDigits(in, list);
+        } catch (IOException | RuntimeException e) {
+            list.close();
+            throw e;
+        }
+        return list;
+    }
+
+    static int readBase(DataInput in) throws IOException {
+        int base = in.readUnsignedByte();
+        if (base < Radix.MIN_BASE || base > Radix.MAX_BASE) {
+            throw new StreamCorruptedException("Invalid base " + base);
+        }
+        return base;
+    }
+
+    /**
+     * Читає кількість цифр і упаковані цифри, дописуючи їх у список.
+     */
+    static void readDigits(DataInput in, NumberListImpl list) throws IOException {
+        int size = (int) readVarint(in, Integer.MAX_VALUE);
+        Unpacker unpacker = new Unpacker(list, size);
+        byte[] packed = new byte[(int) Math.min(packedSize(size, unpacker.bits), BLOCK)];
+        long remaining = packedSize(size, unpacker.bits);
+        while (remaining > 0) {
+            int n = (int) Math.min(packed.length, remaining);
+            in.readFully(packed, 0, n);
+            for (int i = 0; i < n; i++) {
+                unpacker.accept(packed[i]);
+            }
+            remaining -= n;
+        }
+        unpacker.finish();
+    }
+
+    /**
+     * Writes the list as a frame: its encoded size and the encoded list.
+     *
+     * @param list - number to send.
+     * @param out - destination.
+     * @throws IOException if <tt>out</tt> fails to write.
+     */
+    public static void writeFrame(NumberListImpl list, DataOutput out) throws IOException {
+        if (list == null || out == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        writeVarint(out, encodedSize(list));
+        write(list, out);
+    }
+
+    /**
+     * Reads the next frame written by {@link #writeFrame(NumberListImpl, DataOutput)}.
+     *
+     * @param in - source.
+     * @return decoded list, or <tt>null</tt> if the input ended before the frame.
+     * @throws IOException if <tt>in</tt> fails to read or the frame is not valid.
+     */
+    public static NumberListImpl readFrame(DataInput in) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+        int first;
+        try {
+            first = in.readUnsignedByte();
+        } catch (EOFException e) {
+            return null;
+        }
+        long length = (first & 0x80) == 0 ? first : readVarint(in, first, Long.MAX_VALUE);
+        NumberListImpl list = read(in);
+        if (encodedSize(list) != length) {
+            throw new StreamCorruptedException("Frame length " + length + " does not match its number");
+        }
+        return list;
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    static void writeVarint(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarint(DataInput in, long max) throws IOException {
+        return readVarint(in, in.readUnsignedByte(), max);
+    }
+
+    private static long readVarint(DataInput in, int first, long max) throws IOException {
+        long value = first & 0x7F;
+        int b = first;
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift > 63) {
+                throw new StreamCorruptedException("Varint is too long");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+        }
+        if (value < 0 || value > max) {
+            throw new StreamCorruptedException("Varint " + value + " is out of range");
+        }
+        return value;
+    }
+
+    /**
+     * Розпаковує байти в цифри блоками і дописує їх у список.
+     */
+    private static final class Unpacker {
+        private final NumberListImpl list;
+        private final int base;
+        private final int bits;
+        private final int mask;
+        private final byte[] digits;
+        private int remaining;
+        private int count;
+        private long acc;
+        private int pending;
+
+        Unpacker(NumberListImpl list, int size) {
+            this.list = list;
+            this.base = list.getBase();
+            this.bits = bitsPerDigit(base);
+            this.mask = (1 << bits) - 1;
+            this.digits = new byte[Math.min(size, BLOCK)];
+            this.remaining = size;
+        }
+
+        void accept(byte b) throws StreamCorruptedException {
+            acc = acc << 8 | (b & 0xFF);
+            pending += 8;
+            while (pending >= bits && remaining > 0) {
+                pending -= bits;
+                digits[count++] = (byte) (acc >>> pending & mask);
+                remaining--;
+                if (count == digits.length) {
+                    flush();
+                }
+            }
+        }
+
+        private void flush() throws StreamCorruptedException {
+            int invalid = DigitKernels.INSTANCE.firstInvalid(digits, 0, count, base);
+            if (invalid >= 0) {
+                throw new StreamCorruptedException(
+                    "Digit " + digits[invalid] + " is out of range for base " + base);
+            }
+            list.appendDigits(digits, 0, count);
+            count = 0;
+        }
+
+        void finish() throws StreamCorruptedException {
+            if (remaining > 0) {
+                throw new StreamCorruptedException(remaining + " digits are missing");
+            }
+            if (count > 0) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes numbers as frames to one output.
+     */
+    public static final class FrameWriter {
+        private final DataOutput out;
+        private long frames;
+
+        /**
+         * @param out - destination of the frames.
+         */
+        public FrameWriter(DataOutput out) {
+            if (out == null) {
+                throw new IllegalArgumentException("Output cannot be null");
+            }
+            this.out = out;
+        }
+
+        /**
+         * Writes the list as the next frame.
+         *
+         * @param list - number to send.
+         * @throws IOException if the output fails to write.
+         */
+        public void write(NumberListImpl list) throws IOException {
+            writeFrame(list, out);
+            frames++;
+        }
+
+        /**
+         * Returns number of frames written so far.
+         */
+        public long getFrameCount() {
+            return frames;
+        }
+    }
+
+    /**
+     * Decodes frames directly from a buffer, e.g. one filled from a
+     * channel or a mapped file. Digits are unpacked from the buffer into
+     * the new lists without copying frames or building strings. Frames
+     * are read from the position of the buffer up to its limit, and the
+     * position is moved past every returned frame.
+     */
+    public static final class FrameReader implements Iterator<NumberListImpl> {
+        private final ByteBuffer buffer;
+        private final Storage storage;
+
+        /**
+         * @param buffer - frames to read.
+         */
+        public FrameReader(ByteBuffer buffer) {
+            this(buffer, Storage.LINKED);
+        }
+
+        /**
+         * @param buffer - frames to read.
+         * @param storage - where digits of the decoded lists are kept.
+         */
+        public FrameReader(ByteBuffer buffer, Storage storage) {
+            if (buffer == null || storage == null) {
+                throw new IllegalArgumentException("Arguments cannot be null");
+            }
+            this.buffer = buffer;
+            this.storage = storage;
+        }
+
+        /**
+         * Returns whether the buffer holds at least one more complete
+         * frame. A frame cut by the limit of the buffer is left for the
+         * caller to complete (e.g. after compacting and refilling).
+         *
+         * @throws IllegalArgumentException if the length of the next frame
+         * is not valid.
+         */
+        @Override
+        public boolean hasNext() {
+            int pos = buffer.position();
+            long length = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= buffer.limit()) {
+                    return false;
+                }
+                if (shift > 28) {
+                    // довжина кадру в буфері не може перевищувати int
+                    throw new IllegalArgumentException("Invalid frame at position " + buffer.position()
+                        + ": frame length is too long");
+                }
+                int b = buffer.get(pos++);
+                length |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid frame at position " + buffer.position()
+                    + ": frame length " + length + " is out of range");
+            }
+            return length <= buffer.limit() - pos;
+        }
+
+        /**
+         * Decodes the next frame.
+         *
+         * @return decoded list.
+         * @throws NoSuchElementException if there is no complete frame.
+         * @throws IllegalArgumentException if the frame is not valid.
+         */
+        @Override
+        public NumberListImpl next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long length = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = buffer.get();
+                length |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            int start = buffer.position();
+            int end = (int) (start + length);
+            try {
+                NumberListImpl list = decode(start, end);
+                buffer.position(end);
+                return list;
+            } catch (StreamCorruptedException e) {
+                throw new IllegalArgumentException("Invalid frame at position " + start + ": " + e.getMessage(), e);
+            }
+        }
+
+        private NumberListImpl decode(int pos, int end) throws StreamCorruptedException {
+            if (pos >= end) {
+                throw new StreamCorruptedException("Frame is empty");
+            }
+            int base = buffer.get(pos++) & 0xFF;
+            if (base < Radix.MIN_BASE || base > Radix.MAX_BASE) {
+                throw new StreamCorruptedException("Invalid base " + base);
+            }
+            long size = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (pos >= end || shift > 28) {
+                    throw new StreamCorruptedException("Invalid digit count");
+                }
+                int b = buffer.get(pos++);
+                size |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (size > Integer.MAX_VALUE || packedSize((int) size, bitsPerDigit(base)) != end - pos) {
+                throw new StreamCorruptedException("Frame length does not match its number");
+            }
+            NumberListImpl list = NumberListImpl.empty(base, storage);
+            try {
+                Unpacker unpacker = new Unpacker(list, (int) size);
+                while (pos < end) {
+                    unpacker.accept(buffer.get(pos++));
+                }
+                unpacker.finish();
+            } catch (StreamCorruptedException | RuntimeException e) {
+                list.close();
+                throw e;
+            }
+            return list;
+        }
+    }
+}
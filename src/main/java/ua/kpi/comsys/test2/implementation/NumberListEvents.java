@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events of <tt>NumberListImpl</tt>.<p>
+ *
+ * Events are created on every operation, but while they are not enabled
+ * in a recording <tt>shouldCommit()</tt> is <tt>false</tt>, fields are not
+ * filled and the JIT removes the allocation.
+ */
+final class NumberListEvents {
+
+    static final String PREFIX = "ua.kpi.comsys.numberlist.";
+
+    static final String COPY = "copy";
+    static final String DIGITWISE = "digitwise";
+    static final String CACHED = "cache";
+
+    private NumberListEvents() {
+    }
+
+    @Category({"NumberList"})
+    abstract static class NumberEvent extends Event {
+        @Label("Source Base")
+        int sourceBase;
+
+        @Label("Target Base")
+        int targetBase;
+
+        @Label("Digits")
+        @Description("Number of digits of the source")
+        long digits;
+
+        @Label("Bytes")
+        @Description("Bytes read or written")
+        @DataAmount
+        long bytes;
+
+        @Label("Algorithm")
+        @Description("Conversion path: simple, divide-and-conquer, bit-regroup, copy, digitwise or cache")
+        String algorithm;
+
+        void set(int sourceBase, int targetBase, long digits, long bytes, String algorithm) {
+            this.sourceBase = sourceBase;
+            this.targetBase = targetBase;
+            this.digits = digits;
+            this.bytes = bytes;
+            this.algorithm = algorithm;
+        }
+    }
+
+    @Name(PREFIX + "Parse")
+    @Label("Number Parse")
+    @Description("Parsing of decimal text into digits of the list")
+    static final class Parse extends NumberEvent {
+    }
+
+    @Name(PREFIX + "RadixConversion")
+    @Label("Radix Conversion")
+    @Description("Conversion of the number into another scale of notation")
+    static final class RadixConversion extends NumberEvent {
+    }
+
+    @Name(PREFIX + "BitwiseOperation")
+    @Label("Bitwise Operation")
+    static final class BitwiseOperation extends NumberEvent {
+        @Label("Operation")
+        String operation;
+    }
+
+    @Name(PREFIX + "Save")
+    @Label("Number Save")
+    static final class Save extends NumberEvent {
+    }
+
+    @Name(PREFIX + "Load")
+    @Label("Number Load")
+    static final class Load extends NumberEvent {
+    }
+}
@@ -8,13 +8,24 @@
 package ua.kpi.comsys.test2.implementation;
 
 import ua.kpi.comsys.test2.NumberList;
+import ua.kpi.comsys.test2.implementation.NumberListMetrics.Op;
 
+import java.io.Externalizable;
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.math.BigInteger;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleConsumer;
 
 /**
  * Custom implementation of INumberList interface.
@@ -22,7 +33,91 @@ import java.util.*;
  *
  * Author: Грабенко Вадим Валерійович, ІП-31, № у списку 0006
  */
-public class NumberListImpl implements NumberList {
+public class NumberListImpl implements NumberList, Comparable<NumberListImpl>, AutoCloseable, Externalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Kind of memory, where digits of a list are stored.
+     */
+    public enum Storage {
+        /**
+         * Doubly linked list of nodes on the Java heap. Used by default.
+         */
+        LINKED,
+        /**
+         * Contiguous native memory outside of the Java heap, one byte per
+         * digit. Memory is released by {@link NumberListImpl#close()}, so
+         * such lists should be used in <tt>try</tt>-with-resources; a list
+         * which is not closed releases it only when the garbage collector
+         * finds the list unreachable.
+         */
+        OFF_HEAP,
+        /**
+         * Runs of equal digits with their lengths. Memory and the cost of
+         * positional access depend on the number of runs, so numbers like
+         * <tt>2^n - 1</tt> in binary or sorted lists take a few runs; sorts
+         * take time proportional to the number of runs and the base.
+         */
+        RUN_LENGTH,
+        /**
+         * Single heap array, one byte per digit. Suits lists that are
+         * built by appending and then converted, and reading digits by
+         * index.
+         */
+        PACKED,
+        /**
+         * Heap array with a gap at the last edited position. Suits
+         * inserts and removes near one cursor.
+         */
+        GAP_BUFFER,
+        /**
+         * Blocks of digits indexed by a tree of block sizes. Suits inserts
+         * and removes at scattered positions.
+         */
+        TREE,
+        /**
+         * Chooses the storage by the digits and by the operations on the
+         * list. Starts as {@link #PACKED} and moves digits into
+         * {@link #RUN_LENGTH} storage when they form long runs: when a list
+         * is filled from a number with at least eight digits per run on
+         * average, and after sorts; moves them back when changes leave
+         * more than half as many runs as digits. Otherwise watches
+         * positional calls (<tt>get</tt>, <tt>set</tt>, <tt>add</tt> and
+         * <tt>remove</tt> by index) and moves to {@link #PACKED},
+         * {@link #GAP_BUFFER} or {@link #TREE} when their mix favours it.
+         * Every move is counted in the metrics.
+         */
+        AUTO;
+
+        DigitStore newStore() {
+            switch (this) {
+                case OFF_HEAP:
+                    return new SegmentDigitStore();
+                case RUN_LENGTH:
+                    return new RunLengthDigitStore();
+                case PACKED:
+                case AUTO:
+                    return new PackedDigitStore();
+                case GAP_BUFFER:
+                    return new GapBufferDigitStore();
+                case TREE:
+                    return new BlockTreeDigitStore();
+                default:
+                    return new LinkedDigitStore();
+            }
+        }
+    }
+
+    /**
+     * Мінімальна кількість цифр, з якої AUTO-список переходить на серії.
+     */
+    private static final int AUTO_MIN_SIZE = 64;
+
+    /**
+     * Середня довжина серії, з якої AUTO-список переходить на серії.
+     */
+    private static final int AUTO_RUN_LENGTH = 8;
 
     /**
      * Основна система числення для мого варіанту:
@@ -37,21 +132,35 @@ public class NumberListImpl implements NumberList {
     private static final int ADDITIONAL_BASE = 8;
 
     /**
-     * Внутрішній елемент двозв'язного списку.
+     * Сховище цифр списку, старша цифра першою.
      */
-    private static final class Node {
-        byte value;
-        Node prev;
-        Node next;
+    private transient DigitStore store;
+    private final Storage storage;
 
-        Node(byte value) {
-            this.value = value;
-        }
-    }
+    /**
+     * Лічильник змін вмісту списку. Використовується для інвалідації
+     * закешованого хешу.
+     */
+    private int modCount;
+
+    private int hash;
+    private int hashModCount = -1;
+
+    /**
+     * Поточне значення числа, що оновлюється при дописуванні цифр у кінець.
+     * Створюється лише після {@link #setShadowValueEnabled(boolean)}.
+     */
+    private transient ShadowValue shadow;
 
-    private Node head;
-    private Node tail;
-    private int size;
+    /**
+     * Статистика позиційних викликів AUTO-списку; створюється при першому.
+     */
+    private transient AccessProfile profile;
+
+    /**
+     * Розмір блоку при потоковому виведенні цифр.
+     */
+    private static final int RENDER_BLOCK = 8192;
 
     /**
      * Основа системи числення для даного екземпляра списку.
@@ -64,14 +173,20 @@ public class NumberListImpl implements NumberList {
      * у основній системі числення (base = 3).
      */
     public NumberListImpl() {
-        this(MAIN_BASE);
+        this(MAIN_BASE, Storage.LINKED);
     }
 
-    private NumberListImpl(int base) {
+    private NumberListImpl(int base, Storage storage) {
+        Radix.of(base);
+        if (storage == null) {
+            throw new IllegalArgumentException("Storage cannot be null");
+        }
         this.base = base;
-        this.head = null;
-        this.tail = null;
-        this.size = 0;
+        this.storage = storage;
+        this.store = storage.newStore();
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.track(this);
+        }
     }
 
     /**
@@ -81,27 +196,49 @@ public class NumberListImpl implements NumberList {
      * @param file - file where number is stored.
      */
     public NumberListImpl(File file) {
-        this.head = null;
-        this.tail = null;
-        this.size = 0;
+        this(file, ConversionMonitor.NONE);
+    }
+
+    private NumberListImpl(File file, ConversionMonitor monitor) {
         this.base = 10;
+        this.storage = Storage.LINKED;
+        this.store = storage.newStore();
+
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.track(this);
+        }
+        NumberListEvents.Load event = new NumberListEvents.Load();
+        event.begin();
+        long bytes = loadFromFile(file, monitor);
+        if (event.shouldCommit()) {
+            event.set(10, base, size(), bytes, Radix.of(base).algorithm(size()));
+            event.commit();
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.FROM_FILE, size(), start);
+        }
+    }
 
+    /**
+     * @return кількість прочитаних байт.
+     */
+    private long loadFromFile(File file, ConversionMonitor monitor) {
         if (file == null) {
-            return;
+            return 0;
         }
 
         if (!file.exists() || !file.isFile()) {
-            return;
+            return 0;
         }
 
         try {
             String content = Files.readString(file.toPath(), StandardCharsets.UTF_8).trim();
 
-            if (content.isEmpty()) {
-                return;
+            if (!content.isEmpty()) {
+                initFromDecimalString(content, monitor);
             }
-
-            initFromDecimalString(content);
+            return file.length();
 
         } catch (IOException e) {
             throw new RuntimeException("Unable to read number from file", e);
@@ -116,11 +253,174 @@ public class NumberListImpl implements NumberList {
      * @param value - number in string notation.
      */
     public NumberListImpl(String value) {
-        this(MAIN_BASE);
+        this(MAIN_BASE, Storage.LINKED);
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
         initFromDecimalString(value);
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.FROM_STRING, size(), start);
+        }
+    }
+
+    /**
+     * Constructs new <tt>NumberListImpl</tt> by <b>decimal</b> number
+     * in string notation, stored in the specified scale of notation.
+     *
+     * @param value - number in string notation.
+     * @param base - scale of notation of the list, from 2 to 36.
+     * @return new <tt>NumberListImpl</tt>.
+     */
+    public static NumberListImpl of(String value, int base) {
+        return of(value, base, Storage.LINKED);
+    }
+
+    /**
+     * Constructs new <tt>NumberListImpl</tt> by <b>decimal</b> number
+     * in string notation, stored in the specified scale of notation and
+     * kind of memory.
+     *
+     * @param value - number in string notation.
+     * @param base - scale of notation of the list, from 2 to 36.
+     * @param storage - where digits of the list are kept.
+     * @return new <tt>NumberListImpl</tt>.
+     */
+    public static NumberListImpl of(String value, int base, Storage storage) {
+        NumberListImpl list = new NumberListImpl(base, storage);
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        try {
+            list.initFromDecimalString(value);
+        } catch (RuntimeException e) {
+            list.close();
+            throw e;
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.FROM_STRING, list.size(), start);
+        }
+        return list;
+    }
+
+    /**
+     * Constructs empty <tt>NumberListImpl</tt> in the specified scale of
+     * notation and kind of memory.
+     *
+     * @param base - scale of notation of the list, from 2 to 36.
+     * @param storage - where digits of the list are kept.
+     * @return new empty <tt>NumberListImpl</tt>.
+     */
+    public static NumberListImpl empty(int base, Storage storage) {
+        return new NumberListImpl(base, storage);
+    }
+
+    /**
+     * Constructs <tt>NumberListImpl</tt> by <b>decimal</b> number in string
+     * notation, like {@link #NumberListImpl(String)}, but converts it into
+     * digits only on first access to them.
+     *
+     * @param value - number in string notation.
+     * @return new <tt>NumberListImpl</tt> in the main scale of notation.
+     * @see #deferred(String, int, Storage)
+     */
+    public static NumberListImpl deferred(String value) {
+        return deferred(value, MAIN_BASE, Storage.LINKED);
+    }
+
+    /**
+     * Constructs <tt>NumberListImpl</tt> by <b>decimal</b> number in string
+     * notation, which keeps the text and converts it into digits only when
+     * they are needed.<p>
+     *
+     * The text is validated at once, with the same rules as
+     * {@link #of(String, int, Storage)}. Until digits are needed,
+     * {@link #toDecimalString()} and {@link #saveList(File)} answer from
+     * the text, and {@link #changeScale(int)} and
+     * {@link #additionalOperation(NumberList)} work with its value; the
+     * result of the additional operation is deferred as well. Any access to
+     * the digits as list elements (including {@link #size()},
+     * {@link #equals(Object)} and iteration) converts the number once.
+     *
+     * @param value - number in string notation.
+     * @param base - scale of notation of the list, from 2 to 36.
+     * @param storage - where digits of the list are kept.
+     * @return new <tt>NumberListImpl</tt>.
+     */
+    public static NumberListImpl deferred(String value, int base, Storage storage) {
+        NumberListImpl list = new NumberListImpl(base, storage);
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        try {
+            list.initDeferred(value);
+        } catch (RuntimeException e) {
+            list.close();
+            throw e;
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.FROM_STRING, list.sizeForStats(), start);
+        }
+        return list;
+    }
+
+    /**
+     * Constructs <tt>NumberListImpl</tt> by <b>decimal</b> number from file,
+     * like {@link #NumberListImpl(File)}, but converts it into digits only
+     * on first access to them.
+     *
+     * @param file - file where number is stored.
+     * @return new <tt>NumberListImpl</tt>.
+     * @see #deferred(String, int, Storage)
+     */
+    public static NumberListImpl deferred(File file) {
+        NumberListImpl list = new NumberListImpl(10, Storage.LINKED);
+        if (file == null || !file.isFile()) {
+            return list;
+        }
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        try {
+            String content = Files.readString(file.toPath(), StandardCharsets.UTF_8).trim();
+            if (!content.isEmpty()) {
+                list.initDeferred(content);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read number from file", e);
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.FROM_FILE, list.sizeForStats(), start);
+        }
+        return list;
+    }
+
+    /**
+     * Returns scale of notation of the list.
+     *
+     * @return base of the list, from 2 to 36.
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns kind of memory, where digits of the list are stored.
+     * Lists, produced by this list (e.g. by {@link #changeScale()}), use
+     * the same kind.
+     *
+     * @return storage of the list.
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Releases memory, held by the list outside of the Java heap. Lists
+     * with storage on the Java heap are not affected. An off-heap
+     * list must not be used after it was closed.
+     */
+    @Override
+    public void close() {
+        store.close();
     }
 
     private void initFromDecimalString(String value) {
+        initFromDecimalString(value, ConversionMonitor.NONE);
+    }
+
+    private void initFromDecimalString(String value, ConversionMonitor monitor) {
         if (value == null) {
             throw new IllegalArgumentException("Value cannot be null");
         }
@@ -137,196 +437,1118 @@ public class NumberListImpl implements NumberList {
             return;
         }
 
-        final BigInteger num;
-        try {
-            num = new BigInteger(value);
-        } catch (NumberFormatException ex) {
+        NumberListEvents.Parse event = new NumberListEvents.Parse();
+        event.begin();
+        byte[] decimal = Radix.parseDecimal(value);
+        if (decimal == null) {
             clear();
             return;
         }
 
-        fillFromBigInteger(num, this.base);
+        clear();
+        linkAll(Radix.of(base).fromDecimal(decimal, 0, decimal.length, monitor));
+        if (event.shouldCommit()) {
+            event.set(10, base, decimal.length, value.length(),
+                base == 10 ? NumberListEvents.COPY : Radix.of(10).algorithm(decimal.length));
+            event.commit();
+        }
+    }
+
+    /**
+     * Constructs list over digits shared with other lists. The array is
+     * never changed: the list copies it into its own storage on the first
+     * change.
+     */
+    static NumberListImpl shared(byte[] digits, int base, Storage storage) {
+        NumberListImpl list = new NumberListImpl(base, storage);
+        list.store = new DeferredDigitStore(digits, base, list.store);
+        return list;
+    }
+
+    /**
+     * Запам'ятовує текст без перетворення. Рядки, які звичайний розбір
+     * перетворює на порожній список або нуль, розбираються одразу.
+     */
+    private void initDeferred(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        String text = value.trim();
+        if (!text.isEmpty() && text.charAt(0) == '+') {
+            text = text.substring(1);
+        }
+        if (text.isEmpty() || Radix.parseDecimal(text) == null) {
+            initFromDecimalString(value);
+            return;
+        }
+        int lead = 0;
+        while (lead < text.length() - 1 && text.charAt(lead) == '0') {
+            lead++;
+        }
+        store = new DeferredDigitStore(text.substring(lead), null, base, store);
+    }
+
+    /**
+     * Returns the source of a list whose digits were not produced yet, or
+     * <tt>null</tt>.
+     */
+    private DeferredDigitStore pending() {
+        if (store instanceof DeferredDigitStore && ((DeferredDigitStore) store).isPending()) {
+            return (DeferredDigitStore) store;
+        }
+        return null;
+    }
+
+    /**
+     * Number of digits for statistics and events. For a deferred list it is
+     * the length of its decimal source, so statistics do not convert it.
+     */
+    int sizeForStats() {
+        DeferredDigitStore deferred = pending();
+        return deferred != null ? deferred.sourceLength() : store.size();
+    }
+
+    private void fillFromBigInteger(BigInteger num, ConversionMonitor monitor) {
+        clear();
+        if (shadow != null) {
+            shadow.valid = false;
+        }
+        linkAll(Radix.of(base).toDigits(num, monitor));
+        if (shadow != null) {
+            shadow.reset(num);
+            markShadowValid();
+        }
+    }
+
+    private void linkAll(byte[] digits) {
+        appendDigits(digits, 0, digits.length);
+    }
+
+    /**
+     * Appends digits <tt>[from, to)</tt> of the array without boxing.
+     * Digits must already be in range of the base of the list.
+     */
+    void appendDigits(byte[] digits, int from, int to) {
+        boolean track = isShadowValid();
+        if (storage == Storage.AUTO && store.size() == 0 && to - from >= AUTO_MIN_SIZE
+            && !(store instanceof RunLengthDigitStore)
+            && countRuns(digits, from, to) * (long) AUTO_RUN_LENGTH <= to - from) {
+            migrate(new RunLengthDigitStore());
+        }
+        store.addAll(store.size(), digits, from, to);
+        changed();
+        if (track) {
+            for (int i = from; i < to; i++) {
+                shadow.append(digits[i]);
+            }
+            markShadowValid();
+        }
+    }
+
+    /**
+     * Turns on or off the running value of the number.<p>
+     *
+     * While it is on, every digit appended with {@link #add(Byte)} updates
+     * the value in amortized logarithmic time, so conversions right after
+     * the list was built (e.g. {@link #changeScale()} or
+     * {@link #toDecimalString()}) do not rebuild the value from all the
+     * digits. Any other change of the list drops the running value; it is
+     * rebuilt by the next conversion and then followed again.
+     *
+     * @param enabled - whether the running value is kept.
+     */
+    public void setShadowValueEnabled(boolean enabled) {
+        if (!enabled) {
+            shadow = null;
+        } else if (shadow == null) {
+            shadow = new ShadowValue(Radix.of(base));
+            if (pending() == null && store.size() == 0) {
+                markShadowValid();
+            }
+        }
+    }
+
+    /**
+     * Returns whether the running value of the number is kept.
+     *
+     * @return <tt>true</tt> if it was turned on by
+     * {@link #setShadowValueEnabled(boolean)}.
+     */
+    public boolean isShadowValueEnabled() {
+        return shadow != null;
+    }
+
+    /**
+     * Значення актуальне, лише якщо після його оновлення список не змінювався.
+     */
+    private boolean isShadowValid() {
+        return shadow != null && shadow.valid && shadow.validAt == modCount;
+    }
+
+    private void markShadowValid() {
+        shadow.valid = true;
+        shadow.validAt = modCount;
+    }
+
+    private static int countRuns(byte[] digits, int from, int to) {
+        int runs = 0;
+        for (int i = from; i < to; i++) {
+            if (i == from || digits[i] != digits[i - 1]) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Фіксує зміну вмісту. AUTO-список на серіях повертається до вузлів,
+     * коли серії стали надто короткими.
+     */
+    private void changed() {
+        modCount++;
+        if (store instanceof DeferredDigitStore) {
+            store = ((DeferredDigitStore) store).digits();
+        }
+        if (storage == Storage.AUTO && store instanceof RunLengthDigitStore) {
+            int runs = ((RunLengthDigitStore) store).runCount();
+            if (runs >= AUTO_MIN_SIZE && runs * 2L > store.size()) {
+                migrate(new PackedDigitStore());
+            }
+        }
+    }
+
+    /**
+     * Враховує позиційний виклик AUTO-списку і за порадою профілю
+     * переносить цифри. Списки на серіях лишаються на них.
+     */
+    private void observe(boolean edit, int index) {
+        if (store instanceof RunLengthDigitStore) {
+            return;
+        }
+        if (profile == null) {
+            profile = new AccessProfile();
+        }
+        int size = store.size();
+        Storage advice = edit ? profile.edit(index, size) : profile.read(size);
+        if (advice != null && size >= AUTO_MIN_SIZE) {
+            DigitStore target = advice.newStore();
+            if (target.getClass() != store.getClass()) {
+                migrate(target);
+            }
+        }
+    }
+
+    /**
+     * Переносить цифри в інше сховище; вміст списку не змінюється.
+     */
+    private void migrate(DigitStore target) {
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.recordSwitch(store.name(), target.name());
+        }
+        byte[] digits = toDigitArray();
+        target.addAll(0, digits, 0, digits.length);
+        store.close();
+        store = target;
     }
 
-    private void fillFromBigInteger(BigInteger num, int base) {
+    /**
+     * Copies digits <tt>[from, from + len)</tt> into the array.
+     */
+    void readDigits(int from, byte[] dst, int off, int len) {
+        store.read(from, dst, off, len);
+    }
+
+    /**
+     * Writes base and digits of the list in the compact form of
+     * {@link NumberListCodec}, a few bits per digit.
+     *
+     * @param out - destination.
+     * @throws IOException if <tt>out</tt> fails to write.
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        NumberListCodec.write(this, out);
+    }
+
+    /**
+     * Replaces the list with the number written by
+     * {@link #writeExternal(ObjectOutput)}, in its base. Digits are
+     * unpacked without conversion; the storage of the list is kept.
+     *
+     * @param in - source.
+     * @throws IOException if <tt>in</tt> fails to read or holds no valid number.
+     */
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        int newBase = NumberListCodec.readBase(in);
         clear();
+        // поточне значення прив'язане до старої основи
+        shadow = null;
+        base = newBase;
+        NumberListCodec.readDigits(in, this);
+    }
+
+    /**
+     * Назва поточного сховища цифр (для діагностики і тестів).
+     */
+    String storeName() {
+        return store.name();
+    }
+
+    private byte[] toDigitArray() {
+        byte[] digits = new byte[store.size()];
+        store.read(0, digits, 0, digits.length);
+        return digits;
+    }
+
+    private BigInteger toBigInteger() {
+        return toBigInteger(ConversionMonitor.NONE);
+    }
+
+    private BigInteger toBigInteger(ConversionMonitor monitor) {
+        DeferredDigitStore deferred = pending();
+        if (deferred != null) {
+            return deferred.value();
+        }
+        if (isShadowValid()) {
+            return shadow.value();
+        }
+        if (store.size() == 0) {
+            return BigInteger.ZERO;
+        }
+        BigInteger value = Radix.of(base).toBigInteger(store, 0, store.size(), monitor);
+        if (shadow != null) {
+            shadow.reset(value);
+            markShadowValid();
+        }
+        return value;
+    }
+
+    /**
+     * Saves the number, stored in the list, into specified file
+     * in <b>decimal</b> scale of notation.
+     *
+     * @param file - file where number has to be stored.
+     */
+    public void saveList(File file) {
+        saveList(file, ConversionMonitor.NONE);
+    }
+
+    private void saveList(File file, ConversionMonitor monitor) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        NumberListEvents.Save event = new NumberListEvents.Save();
+        event.begin();
+        try {
+            byte[] bytes = toDecimalString(monitor).getBytes(StandardCharsets.UTF_8);
+            Files.write(file.toPath(), bytes);
+            if (event.shouldCommit()) {
+                event.set(base, 10, sizeForStats(), bytes.length, Radix.of(base).algorithm(sizeForStats()));
+                event.commit();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to save number to file", e);
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.SAVE_LIST, sizeForStats(), start);
+        }
+    }
+
+    /**
+     * Returns student's record book number, which has 4 decimal digits.
+     * @return student's record book number.
+     */
+    public static int getRecordBookNumber() {
+        return 6;
+    }
+
+    /**
+     * Returns new <tt>NumberListImpl</tt> which represents the same number
+     * in other scale of notation (для мого варіанту base = 8).<p>
+     *
+     * Does not impact the original list.
+     *
+     * @return <tt>NumberListImpl</tt> in other scale of notation.
+     */
+    public NumberListImpl changeScale() {
+        return changeScale(ADDITIONAL_BASE);
+    }
+
+    /**
+     * Returns new <tt>NumberListImpl</tt> which represents the same number
+     * in the specified scale of notation.<p>
+     *
+     * Does not impact the original list.
+     *
+     * @param targetBase - scale of notation of the result, from 2 to 36.
+     * @return <tt>NumberListImpl</tt> in other scale of notation.
+     */
+    public NumberListImpl changeScale(int targetBase) {
+        return changeScale(targetBase, ConversionMonitor.NONE);
+    }
+
+    private NumberListImpl changeScale(int targetBase, ConversionMonitor monitor) {
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        NumberListEvents.RadixConversion event = new NumberListEvents.RadixConversion();
+        event.begin();
+        boolean deferred = pending() != null;
+        int size = sizeForStats();
+        NumberListImpl result = new NumberListImpl(targetBase, storage);
+        String algorithm;
+        if (targetBase == base) {
+            result.linkAll(toDigitArray());
+            algorithm = NumberListEvents.COPY;
+        } else if (!deferred && size > 0 && Radix.isBitRegroupable(base, targetBase)) {
+            result.linkAll(Radix.regroup(store, 0, size,
+                Radix.of(base).bitsPerDigit, Radix.of(targetBase).bitsPerDigit, monitor));
+            algorithm = Radix.of(base).algorithm(size);
+        } else {
+            ResultCache cache = deferred ? null : ResultCache.getShared();
+            ResultCache.Key key = cache != null ? ResultCache.key("changeScale", targetBase, this) : null;
+            byte[] cached = key != null ? cache.get(key) : null;
+            if (cached != null) {
+                result.store = new DeferredDigitStore(cached, targetBase, result.store);
+                algorithm = NumberListEvents.CACHED;
+            } else {
+                result.fillFromBigInteger(toBigInteger(monitor), monitor);
+                algorithm = Radix.of(base).algorithm(size);
+                if (key != null) {
+                    cache.put(key, result.toDigitArray());
+                }
+            }
+        }
+        if (event.shouldCommit()) {
+            event.set(base, targetBase, size, 0, algorithm);
+            event.commit();
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.CHANGE_SCALE, size, start);
+        }
+        return result;
+    }
+
+    /**
+     * Returns new <tt>NumberListImpl</tt> which represents the result of
+     * additional operation, defined by personal test assignment.<p>
+     * @param arg - second argument of additional operation
+     * @return result of additional operation.
+     */
+    public NumberListImpl additionalOperation(NumberList arg) {
+        return additionalOperation(arg, ConversionMonitor.NONE);
+    }
+
+    private NumberListImpl additionalOperation(NumberList arg, ConversionMonitor monitor) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        NumberListEvents.BitwiseOperation event = new NumberListEvents.BitwiseOperation();
+        event.begin();
+
+        int argBase = (arg instanceof NumberListImpl)
+            ? ((NumberListImpl) arg).base
+            : this.base;
+
+        NumberListImpl result;
+        boolean digitwise = arg instanceof NumberListImpl && Radix.isBitRegroupable(base, argBase);
+        // результат від відкладеного операнда теж відкладений
+        boolean deferred = pending() != null
+            || arg instanceof NumberListImpl && ((NumberListImpl) arg).pending() != null;
+        if (digitwise) {
+            result = orDigitwise((NumberListImpl) arg);
+        } else {
+            ResultCache cache = deferred || !(arg instanceof NumberListImpl) ? null : ResultCache.getShared();
+            ResultCache.Key key = cache != null ? ResultCache.key("OR", 0, this, (NumberListImpl) arg) : null;
+            byte[] cached = key != null ? cache.get(key) : null;
+            result = new NumberListImpl(this.base, storage);
+            if (cached != null) {
+                result.store = new DeferredDigitStore(cached, base, result.store);
+            } else {
+                BigInteger a = this.toBigInteger(monitor);
+
+                BigInteger b = toBigIntegerFromList(arg, argBase, monitor);
+
+                BigInteger r = a.or(b);
+
+                if (deferred) {
+                    result.store = new DeferredDigitStore(null, r, base, result.store);
+                } else {
+                    result.fillFromBigInteger(r, monitor);
+                }
+                if (key != null) {
+                    cache.put(key, result.toDigitArray());
+                }
+            }
+        }
+        int argSize = arg instanceof NumberListImpl ? ((NumberListImpl) arg).sizeForStats() : arg.size();
+        if (event.shouldCommit()) {
+            event.set(base, argBase, sizeForStats() + argSize, 0,
+                digitwise ? NumberListEvents.DIGITWISE : Radix.of(base).algorithm(Math.max(sizeForStats(), argSize)));
+            event.operation = "OR";
+            event.commit();
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.ADDITIONAL_OPERATION, sizeForStats() + argSize, start);
+        }
+        return result;
+    }
+
+    /**
+     * OR для систем числення зі степенем двійки: кожна цифра є незалежною
+     * групою біт, тому достатньо вирівняти числа праворуч і поєднати цифри.
+     */
+    private NumberListImpl orDigitwise(NumberListImpl arg) {
+        int bits = Radix.of(base).bitsPerDigit;
+        byte[] a = toDigitArray();
+        byte[] b = arg.base != base
+            ? Radix.regroup(arg.store, 0, arg.size(), Radix.of(arg.base).bitsPerDigit, bits)
+            : arg.toDigitArray();
+        if (a.length < b.length) {
+            byte[] t = a;
+            a = b;
+            b = t;
+        }
+        DigitKernels.INSTANCE.or(a, a.length - b.length, b, 0, b.length);
+        int lead = 0;
+        while (lead < a.length - 1 && a[lead] == 0) {
+            lead++;
+        }
+        NumberListImpl result = new NumberListImpl(base, storage);
+        if (a.length == 0) {
+            result.linkAll(new byte[] {0});
+        } else {
+            result.linkAll(lead == 0 ? a : Arrays.copyOfRange(a, lead, a.length));
+        }
+        return result;
+    }
+
+    private static BigInteger toBigIntegerFromList(List<Byte> list, int base, ConversionMonitor monitor) {
+        if (list instanceof NumberListImpl) {
+            return ((NumberListImpl) list).toBigInteger(monitor);
+        }
+        if (list == null || list.isEmpty()) {
+            return BigInteger.ZERO;
+        }
+        byte[] digits = new byte[list.size()];
+        int i = 0;
+        for (Byte bv : list) {
+            if (bv == null) {
+                throw new IllegalArgumentException("Null digit is not allowed");
+            }
+            digits[i++] = bv;
+        }
+        return Radix.of(base).toBigInteger(DigitSource.of(digits), 0, i, monitor);
+    }
+
+    /**
+     * Returns string representation of number, stored in the list
+     * in <b>decimal</b> scale of notation.
+     *
+     * @return string representation in <b>decimal</b> scale.
+     */
+    public String toDecimalString() {
+        return toDecimalString(ConversionMonitor.NONE);
+    }
+
+    /**
+     * Рядок для асинхронних викликів будується через Radix, щоб перевіряти
+     * скасування між блоками цифр; BigInteger.toString() не переривається.
+     */
+    private String toDecimalString(ConversionMonitor monitor) {
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        NumberListEvents.RadixConversion event = new NumberListEvents.RadixConversion();
+        event.begin();
+        DeferredDigitStore deferred = pending();
+        String result;
+        if (deferred != null) {
+            result = deferred.decimal();
+        } else if (monitor == ConversionMonitor.NONE) {
+            result = toBigInteger(monitor).toString();
+        } else {
+            BigInteger value = toBigInteger(monitor);
+            byte[] digits = Radix.of(10).toDigits(value, monitor);
+            DigitKernels.INSTANCE.toAscii(digits, 0, digits.length, digits, 0);
+            result = new String(digits, StandardCharsets.ISO_8859_1);
+        }
+        if (event.shouldCommit()) {
+            event.set(base, 10, sizeForStats(), 0, Radix.of(base).algorithm(sizeForStats()));
+            event.commit();
+        }
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.TO_DECIMAL_STRING, sizeForStats(), start);
+        }
+        return result;
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #changeScale()}.
+     *
+     * @param executor - where the conversion runs.
+     * @return future of the list in other scale of notation.
+     * @see #changeScaleAsync(int, Executor, DoubleConsumer)
+     */
+    public CompletableFuture<NumberListImpl> changeScaleAsync(Executor executor) {
+        return changeScaleAsync(ADDITIONAL_BASE, executor, null);
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #changeScale(int)}.<p>
+     *
+     * Cancelling the returned future interrupts the conversion between
+     * blocks of digits. The list must not be modified until the future
+     * completes.
+     *
+     * @param targetBase - scale of notation of the result, from 2 to 36.
+     * @param executor - where the conversion runs.
+     * @param progress - receives completed fraction from 0 to 1, or <tt>null</tt>.
+     * @return future of the list in other scale of notation.
+     */
+    public CompletableFuture<NumberListImpl> changeScaleAsync(int targetBase, Executor executor,
+                                                              DoubleConsumer progress) {
+        Radix.of(targetBase);
+        return AsyncTask.start(executor, conversionWork(sizeForStats(), base, targetBase), progress,
+            monitor -> changeScale(targetBase, monitor));
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #additionalOperation(NumberList)}.
+     *
+     * @param arg - second argument of additional operation.
+     * @param executor - where the operation runs.
+     * @return future of the result of additional operation.
+     * @see #orAsync(NumberList, Executor, DoubleConsumer)
+     */
+    public CompletableFuture<NumberListImpl> orAsync(NumberList arg, Executor executor) {
+        return orAsync(arg, executor, null);
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #additionalOperation(NumberList)}.<p>
+     *
+     * Cancelling the returned future interrupts the operation between
+     * blocks of digits. Neither list may be modified until the future
+     * completes.
+     *
+     * @param arg - second argument of additional operation.
+     * @param executor - where the operation runs.
+     * @param progress - receives completed fraction from 0 to 1, or <tt>null</tt>.
+     * @return future of the result of additional operation.
+     */
+    public CompletableFuture<NumberListImpl> orAsync(NumberList arg, Executor executor, DoubleConsumer progress) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        int argSize = arg instanceof NumberListImpl ? ((NumberListImpl) arg).sizeForStats() : arg.size();
+        long work = 2L * ((long) sizeForStats() + argSize);
+        return AsyncTask.start(executor, work, progress, monitor -> additionalOperation(arg, monitor));
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #saveList(File)}.
+     *
+     * @param file - file where number has to be stored.
+     * @param executor - where conversion and writing run.
+     * @return future, completed when the file is written.
+     * @see #saveListAsync(File, Executor, DoubleConsumer)
+     */
+    public CompletableFuture<Void> saveListAsync(File file, Executor executor) {
+        return saveListAsync(file, executor, null);
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #saveList(File)}.<p>
+     *
+     * Cancelling the returned future interrupts the conversion between
+     * blocks of digits; the file is then left untouched. The list must not
+     * be modified until the future completes.
+     *
+     * @param file - file where number has to be stored.
+     * @param executor - where conversion and writing run.
+     * @param progress - receives completed fraction from 0 to 1, or <tt>null</tt>.
+     * @return future, completed when the file is written.
+     */
+    public CompletableFuture<Void> saveListAsync(File file, Executor executor, DoubleConsumer progress) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        return AsyncTask.start(executor, conversionWork(sizeForStats(), base, 10), progress, monitor -> {
+            saveList(file, monitor);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #NumberListImpl(File)}.
+     *
+     * @param file - file where number is stored.
+     * @param executor - where reading and conversion run.
+     * @return future of the loaded list.
+     * @see #loadAsync(Path, Executor, DoubleConsumer)
+     */
+    public static CompletableFuture<NumberListImpl> loadAsync(Path file, Executor executor) {
+        return loadAsync(file, executor, null);
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #NumberListImpl(File)}.<p>
+     *
+     * Cancelling the returned future interrupts reading or conversion
+     * between blocks of digits.
+     *
+     * @param file - file where number is stored.
+     * @param executor - where reading and conversion run.
+     * @param progress - receives completed fraction from 0 to 1, or <tt>null</tt>.
+     * @return future of the loaded list.
+     */
+    public static CompletableFuture<NumberListImpl> loadAsync(Path file, Executor executor, DoubleConsumer progress) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        File f = file.toFile();
+        return AsyncTask.start(executor, conversionWork((int) Math.min(f.length(), Integer.MAX_VALUE), 10, 10),
+            progress, monitor -> new NumberListImpl(f, monitor));
+    }
+
+    /**
+     * Оцінка кількості цифр, про які звітує перетворення: цифри джерела
+     * і цифри результату (для бітового перегрупування -- лише джерела).
+     */
+    private static long conversionWork(int digits, int sourceBase, int targetBase) {
+        if (sourceBase == targetBase || Radix.isBitRegroupable(sourceBase, targetBase)) {
+            return digits;
+        }
+        return digits + (long) Math.ceil(digits * Math.log(sourceBase) / Math.log(targetBase));
+    }
+
+    /**
+     * Кількість комірок під цифри, які утримує сховище списку (для метрик).
+     */
+    int nodeCount() {
+        return (int) Math.min(store.capacity(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns read-only view of the digits of this list as characters,
+     * the same ones {@link #toString()} would produce. Characters are
+     * rendered on demand, sequential <tt>charAt</tt> calls take constant
+     * time each.<p>
+     *
+     * The view is backed by the list, so changes in the list are visible
+     * through the view.
+     *
+     * @return character view of the number.
+     */
+    public CharSequence asCharSequence() {
+        return new DigitView(0, -1);
+    }
+
+    /**
+     * Appends string representation of the number (as {@link #toString()})
+     * to the given <tt>Appendable</tt>, block by block, without building
+     * the whole string.
+     *
+     * @param out - destination for digits.
+     * @return <tt>out</tt>.
+     * @throws IOException if <tt>out</tt> fails to append.
+     */
+    public <A extends Appendable> A appendTo(A out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Appendable cannot be null");
+        }
+        int size = store.size();
+        byte[] digits = new byte[Math.min(size, RENDER_BLOCK)];
+        char[] buf = new char[digits.length];
+        for (int from = 0; from < size; from += digits.length) {
+            int len = Math.min(digits.length, size - from);
+            store.read(from, digits, 0, len);
+            for (int i = 0; i < len; i++) {
+                buf[i] = Radix.DIGIT_CHARS[digits[i]];
+            }
+            appendBlock(out, buf, len);
+        }
+        return out;
+    }
+
+    private static void appendBlock(Appendable out, char[] buf, int len) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(buf, 0, len);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(buf, 0, len);
+        } else {
+            out.append(CharBuffer.wrap(buf, 0, len));
+        }
+    }
+
+    /**
+     * Writes string representation of the number (as {@link #toString()})
+     * to the given stream as Latin-1 bytes, one byte per digit.
+     *
+     * @param out - destination stream.
+     * @throws IOException if <tt>out</tt> fails to write.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Stream cannot be null");
+        }
+        int size = store.size();
+        byte[] buf = new byte[Math.min(size, RENDER_BLOCK)];
+        for (int from = 0; from < size; from += buf.length) {
+            int len = Math.min(buf.length, size - from);
+            store.read(from, buf, 0, len);
+            DigitKernels.INSTANCE.toAscii(buf, 0, len, buf, 0);
+            out.write(buf, 0, len);
+        }
+    }
+
+    /**
+     * Символьне представлення діапазону цифр списку. Для всього списку
+     * (<tt>to == -1</tt>) довжина відслідковує поточний розмір.
+     */
+    private final class DigitView implements CharSequence {
+        private final int from;
+        private final int to;
+
+        DigitView(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
 
-        if (num.compareTo(BigInteger.ZERO) == 0) {
-            add((byte) 0);
-            return;
+        @Override
+        public int length() {
+            return (to < 0 ? store.size() : to) - from;
         }
 
-        BigInteger b = BigInteger.valueOf(base);
-        List<Byte> digitsReversed = new ArrayList<>();
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, length());
+            return Radix.DIGIT_CHARS[store.get(from + index)];
+        }
 
-        BigInteger current = num;
-        while (current.compareTo(BigInteger.ZERO) > 0) {
-            BigInteger[] dr = current.divideAndRemainder(b);
-            int digit = dr[1].intValue();
-            digitsReversed.add((byte) digit);
-            current = dr[0];
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, length());
+            return new DigitView(from + start, from + end);
         }
 
-        for (int i = digitsReversed.size() - 1; i >= 0; i--) {
-            add(digitsReversed.get(i));
+        @Override
+        public String toString() {
+            int len = length();
+            if (len == 0) {
+                return "";
+            }
+            byte[] chars = new byte[len];
+            store.read(from, chars, 0, len);
+            DigitKernels.INSTANCE.toAscii(chars, 0, len, chars, 0);
+            return new String(chars, StandardCharsets.ISO_8859_1);
         }
     }
 
-    private BigInteger toBigInteger() {
-        if (size == 0) {
-            return BigInteger.ZERO;
+    @Override
+    public String toString() {
+        return asCharSequence().toString();
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof NumberListImpl) {
+            return equalDigits((NumberListImpl) o);
         }
-        BigInteger result = BigInteger.ZERO;
-        BigInteger b = BigInteger.valueOf(this.base);
-        Node current = head;
-        while (current != null) {
-            int d = current.value & 0xFF;
-            result = result.multiply(b).add(BigInteger.valueOf(d));
-            current = current.next;
+        if (!(o instanceof List)) return false;
+        List<?> other = (List<?>) o;
+        if (other.size() != size()) return false;
+
+        Iterator<Byte> itThis = this.iterator();
+        Iterator<?> itOther = other.iterator();
+
+        while (itThis.hasNext() && itOther.hasNext()) {
+            Byte a = itThis.next();
+            Object b = itOther.next();
+            if (!Objects.equals(a, b)) {
+                return false;
+            }
         }
-        return result;
+        return !itThis.hasNext() && !itOther.hasNext();
     }
 
     /**
-     * Saves the number, stored in the list, into specified file
-     * in <b>decimal</b> scale of notation.
-     *
-     * @param file - file where number has to be stored.
+     * Порівнює два списки блоками цифр, без ітераторів і boxing.
+     * Якщо обидва хеші вже пораховані і відрізняються, списки точно різні.
      */
-    public void saveList(File file) {
-        if (file == null) {
-            throw new IllegalArgumentException("File cannot be null");
+    private boolean equalDigits(NumberListImpl other) {
+        int size = store.size();
+        if (other.size() != size) return false;
+        if (this.hashModCount == this.modCount
+            && other.hashModCount == other.modCount
+            && this.hash != other.hash) {
+            return false;
         }
-        try {
-            String value = toDecimalString();
-            Files.write(file.toPath(), value.getBytes(StandardCharsets.UTF_8));
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to save number to file", e);
+        byte[] a = new byte[Math.min(size, RENDER_BLOCK)];
+        byte[] b = new byte[a.length];
+        for (int from = 0; from < size; from += a.length) {
+            int len = Math.min(a.length, size - from);
+            store.read(from, a, 0, len);
+            other.store.read(from, b, 0, len);
+            if (!Arrays.equals(a, 0, len, b, 0, len)) {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
-     * Returns student's record book number, which has 4 decimal digits.
-     * @return student's record book number.
+     * Returns hash code as defined by {@link List#hashCode()}.
+     * The value is cached until the next modification of the list.
      */
-    public static int getRecordBookNumber() {
-        return 6;
+    @Override
+    public int hashCode() {
+        if (hashModCount != modCount) {
+            int size = store.size();
+            byte[] digits = new byte[Math.min(size, RENDER_BLOCK)];
+            int h = 1;
+            for (int from = 0; from < size; from += digits.length) {
+                int len = Math.min(digits.length, size - from);
+                store.read(from, digits, 0, len);
+                for (int i = 0; i < len; i++) {
+                    h = 31 * h + digits[i];
+                }
+            }
+            hash = h;
+            hashModCount = modCount;
+        }
+        return hash;
     }
 
     /**
-     * Returns new <tt>NumberListImpl</tt> which represents the same number
-     * in other scale of notation (для мого варіанту base = 8).<p>
+     * Checks whether two lists represent the same number, even if they are
+     * stored in different scales of notation (e.g. base 3 and its
+     * {@link #changeScale()} result).<p>
      *
-     * Does not impact the original list.
+     * Mismatches are rejected without conversion when possible: first by
+     * estimated magnitude, then by residues modulo several primes.
      *
-     * @return <tt>NumberListImpl</tt> in other scale of notation.
+     * @param other - number to compare with
+     * @return <tt>true</tt> if both lists represent the same number.
      */
-    public NumberListImpl changeScale() {
-        BigInteger value = toBigInteger();
-        NumberListImpl result = new NumberListImpl(ADDITIONAL_BASE);
-        result.fillFromBigInteger(value, ADDITIONAL_BASE);
-        return result;
+    public boolean numericEquals(NumberListImpl other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Argument cannot be null");
+        }
+        if (this == other) {
+            return true;
+        }
+        int a = firstSignificant();
+        int b = other.firstSignificant();
+        if (this.base == other.base) {
+            return compareSameBase(a, b, other) == 0;
+        }
+        if (a < 0 || b < 0) {
+            return a == b;
+        }
+        if (compareMagnitude(other) != 0) {
+            return false;
+        }
+        for (long p : RESIDUE_PRIMES) {
+            if (mod(p) != other.mod(p)) {
+                return false;
+            }
+        }
+        return toBigInteger().equals(other.toBigInteger());
     }
 
     /**
-     * Returns new <tt>NumberListImpl</tt> which represents the result of
-     * additional operation, defined by personal test assignment.<p>
-     * @param arg - second argument of additional operation
-     * @return result of additional operation.
+     * Compares numbers, represented by lists, possibly stored in different
+     * scales of notation.<p>
+     *
+     * Note: this ordering is numeric and therefore inconsistent with
+     * {@link #equals(Object)}, which compares digits as list elements.
+     *
+     * @param other - number to compare with
+     * @return negative value, zero or positive value if this number is less,
+     * equal or greater than <tt>other</tt>.
      */
-    public NumberListImpl additionalOperation(NumberList arg) {
-        if (arg == null) {
+    @Override
+    public int compareTo(NumberListImpl other) {
+        if (other == null) {
             throw new IllegalArgumentException("Argument cannot be null");
         }
+        if (this == other) {
+            return 0;
+        }
+        int a = firstSignificant();
+        int b = other.firstSignificant();
+        if (this.base == other.base) {
+            return compareSameBase(a, b, other);
+        }
+        if (a < 0 || b < 0) {
+            return (a < 0 ? 0 : 1) - (b < 0 ? 0 : 1);
+        }
+        int byMagnitude = compareMagnitude(other);
+        if (byMagnitude != 0) {
+            return byMagnitude;
+        }
+        return toBigInteger().compareTo(other.toBigInteger());
+    }
 
-        BigInteger a = this.toBigInteger();
-
-        int argBase = (arg instanceof NumberListImpl)
-            ? ((NumberListImpl) arg).base
-            : this.base;
+    /**
+     * Прості модулі для швидкої перевірки нерівності чисел у різних системах числення.
+     */
+    private static final long[] RESIDUE_PRIMES = {2_147_483_647L, 1_000_000_007L, 998_244_353L};
 
-        BigInteger b = toBigIntegerFromList(arg, argBase);
+    /**
+     * @return позиція першої ненульової цифри, або -1, якщо число дорівнює нулю.
+     */
+    private int firstSignificant() {
+        int size = store.size();
+        for (int i = 0; i < size; i++) {
+            if (store.get(i) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        BigInteger r = a.or(b);
+    private int significantDigits() {
+        int first = firstSignificant();
+        return first < 0 ? 0 : store.size() - first;
+    }
 
-        NumberListImpl result = new NumberListImpl(this.base);
-        result.fillFromBigInteger(r, this.base);
-        return result;
+    private int compareSameBase(int a, int b, NumberListImpl other) {
+        int lenA = a < 0 ? 0 : this.size() - a;
+        int lenB = b < 0 ? 0 : other.size() - b;
+        if (lenA != lenB) {
+            return Integer.compare(lenA, lenB);
+        }
+        byte[] da = new byte[Math.min(lenA, RENDER_BLOCK)];
+        byte[] db = new byte[da.length];
+        for (int off = 0; off < lenA; off += da.length) {
+            int len = Math.min(da.length, lenA - off);
+            store.read(a + off, da, 0, len);
+            other.store.read(b + off, db, 0, len);
+            int cmp = Arrays.compare(da, 0, len, db, 0, len);
+            if (cmp != 0) {
+                return Integer.signum(cmp);
+            }
+        }
+        return 0;
     }
 
-    private static BigInteger toBigIntegerFromList(List<Byte> list, int base) {
-        if (list == null || list.isEmpty()) {
-            return BigInteger.ZERO;
+    /**
+     * Оцінка порядку числа: значення з n значущих цифр лежить у
+     * [base^(n-1), base^n). Повертає 0, якщо інтервали перетинаються.
+     */
+    private int compareMagnitude(NumberListImpl other) {
+        double lowA = (this.significantDigits() - 1) * Math.log(this.base);
+        double highA = lowA + Math.log(this.base);
+        double lowB = (other.significantDigits() - 1) * Math.log(other.base);
+        double highB = lowB + Math.log(other.base);
+        double eps = 1e-9 * Math.max(highA, highB);
+        if (highA + eps < lowB) {
+            return -1;
         }
-        BigInteger result = BigInteger.ZERO;
-        BigInteger b = BigInteger.valueOf(base);
-        for (Byte bv : list) {
-            if (bv == null) {
-                throw new IllegalArgumentException("Null digit is not allowed");
-            }
-            int d = bv & 0xFF;
-            result = result.multiply(b).add(BigInteger.valueOf(d));
+        if (highB + eps < lowA) {
+            return 1;
         }
-        return result;
+        return 0;
     }
 
     /**
-     * Returns string representation of number, stored in the list
-     * in <b>decimal</b> scale of notation.
+     * Returns the number modulo <tt>m</tt>, computed in one pass over the
+     * digits without converting them into a number.
      *
-     * @return string representation in <b>decimal</b> scale.
+     * @param m - positive modulus.
+     * @return remainder in <tt>[0, m)</tt>.
      */
-    public String toDecimalString() {
-        return toBigInteger().toString();
+    public long mod(long m) {
+        if (m <= 0) {
+            throw new IllegalArgumentException("Modulus must be positive: " + m);
+        }
+        return Residues.of(store, 0, store.size(), base, m);
     }
 
-    @Override
-    public String toString() {
-        if (size == 0) {
-            return "";
-        }
-        StringBuilder sb = new StringBuilder(size);
-        for (Node n = head; n != null; n = n.next) {
-            int d = n.value & 0xFF;
-            if (d < 10) {
-                sb.append((char) ('0' + d));
-            } else {
-                sb.append((char) ('A' + (d - 10)));
-            }
+    /**
+     * Returns the same value as {@link #mod(long)}, reducing parts of the
+     * number in parallel on the common fork/join pool. Remainders of the
+     * parts are joined with powers of the base modulo <tt>m</tt>. Digits
+     * are copied out of the list first, so the list must not be changed
+     * during the call.
+     *
+     * @param m - positive modulus.
+     * @return remainder in <tt>[0, m)</tt>.
+     */
+    public long parallelMod(long m) {
+        if (store.size() < 2 * Residues.CHUNK) {
+            return mod(m);
+        }
+        if (m <= 0) {
+            throw new IllegalArgumentException("Modulus must be positive: " + m);
         }
-        return sb.toString();
+        return Residues.parallel(toDigitArray(), base, m);
     }
 
+    /**
+     * Checks whether the number is divisible by <tt>d</tt>. Divisors of
+     * the base are checked by the last digit and divisors of
+     * <tt>base - 1</tt> by the digit sum; others by {@link #mod(long)}.
+     *
+     * @param d - positive divisor.
+     * @return <tt>true</tt> if the remainder is zero.
+     */
+    public boolean isDivisibleBy(int d) {
+        if (d <= 0) {
+            throw new IllegalArgumentException("Divisor must be positive: " + d);
+        }
+        int size = store.size();
+        if (base % d == 0) {
+            return size == 0 || store.get(size - 1) % d == 0;
+        }
+        if ((base - 1) % d == 0) {
+            return digitSum() % d == 0;
+        }
+        return mod(d) == 0;
+    }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof List)) return false;
-        List<?> other = (List<?>) o;
-        if (other.size() != this.size) return false;
-
-        Iterator<Byte> itThis = this.iterator();
-        Iterator<?> itOther = other.iterator();
-
-        while (itThis.hasNext() && itOther.hasNext()) {
-            Byte a = itThis.next();
-            Object b = itOther.next();
-            if (!Objects.equals(a, b)) {
-                return false;
-            }
+    /**
+     * Returns the sum of all digits.
+     */
+    public long digitSum() {
+        int[] counts = digitHistogram();
+        long sum = 0;
+        for (int d = 1; d < counts.length; d++) {
+            sum += (long) d * counts[d];
         }
-        return !itThis.hasNext() && !itOther.hasNext();
+        return sum;
     }
 
+    /**
+     * Counts every digit value in one pass over the list.
+     *
+     * @return array of length {@link #getBase()}; element <tt>d</tt> is
+     * the number of digits equal to <tt>d</tt>.
+     */
+    public int[] digitHistogram() {
+        int size = store.size();
+        int[] counts = new int[base];
+        byte[] digits = new byte[Math.min(size, RENDER_BLOCK)];
+        for (int from = 0; from < size; from += digits.length) {
+            int len = Math.min(digits.length, size - from);
+            store.read(from, digits, 0, len);
+            DigitKernels.INSTANCE.histogram(digits, 0, len, counts);
+        }
+        return counts;
+    }
 
     @Override
     public int size() {
-        return size;
+        return store.size();
     }
 
     @Override
     public boolean isEmpty() {
-        return size == 0;
+        return store.size() == 0;
     }
 
     private void checkDigitRange(byte value) {
@@ -342,32 +1564,32 @@ public class NumberListImpl implements NumberList {
     }
 
     private final class Itr implements Iterator<Byte> {
-        private Node next = head;
-        private Node lastReturned = null;
+        private int next;
+        private int lastReturned = -1;
 
         @Override
         public boolean hasNext() {
-            return next != null;
+            return next < store.size();
         }
 
         @Override
         public Byte next() {
-            if (next == null) {
+            if (next >= store.size()) {
                 throw new NoSuchElementException();
             }
-            lastReturned = next;
-            next = next.next;
-            return lastReturned.value;
+            lastReturned = next++;
+            return store.get(lastReturned);
         }
 
         @Override
         public void remove() {
-            if (lastReturned == null) {
+            if (lastReturned < 0) {
                 throw new IllegalStateException();
             }
-            Node node = lastReturned;
-            lastReturned = null;
-            unlink(node);
+            store.remove(lastReturned);
+            changed();
+            next = lastReturned;
+            lastReturned = -1;
         }
     }
 
@@ -378,10 +1600,10 @@ public class NumberListImpl implements NumberList {
 
     @Override
     public Object[] toArray() {
-        Object[] arr = new Object[size];
-        int i = 0;
-        for (Node n = head; n != null; n = n.next) {
-            arr[i++] = n.value;
+        byte[] digits = toDigitArray();
+        Object[] arr = new Object[digits.length];
+        for (int i = 0; i < digits.length; i++) {
+            arr[i] = digits[i];
         }
         return arr;
     }
@@ -398,71 +1620,25 @@ public class NumberListImpl implements NumberList {
         }
         byte v = e;
         checkDigitRange(v);
-        linkLast(v);
-        return true;
-    }
-
-    private void linkLast(byte value) {
-        Node newNode = new Node(value);
-        Node oldTail = tail;
-        tail = newNode;
-        if (oldTail == null) {
-            head = newNode;
-        } else {
-            oldTail.next = newNode;
-            newNode.prev = oldTail;
-        }
-        size++;
-    }
-
-    private void linkBefore(byte value, Node succ) {
-        Node newNode = new Node(value);
-        Node pred = succ.prev;
-        newNode.next = succ;
-        newNode.prev = pred;
-        succ.prev = newNode;
-        if (pred == null) {
-            head = newNode;
-        } else {
-            pred.next = newNode;
-        }
-        size++;
-    }
-
-    private void unlink(Node node) {
-        Node prev = node.prev;
-        Node next = node.next;
-
-        if (prev == null) {
-            head = next;
-        } else {
-            prev.next = next;
-        }
-
-        if (next == null) {
-            tail = prev;
-        } else {
-            next.prev = prev;
+        boolean track = isShadowValid();
+        store.add(v);
+        changed();
+        if (track) {
+            shadow.append(v);
+            markShadowValid();
         }
-
-        size--;
+        return true;
     }
 
     @Override
     public boolean remove(Object o) {
-        if (!(o instanceof Byte)) {
+        int index = indexOf(o);
+        if (index < 0) {
             return false;
         }
-        Byte target = (Byte) o;
-        Node current = head;
-        while (current != null) {
-            if (Objects.equals(current.value, target)) {
-                unlink(current);
-                return true;
-            }
-            current = current.next;
-        }
-        return false;
+        store.remove(index);
+        changed();
+        return true;
     }
 
     @Override
@@ -477,102 +1653,169 @@ public class NumberListImpl implements NumberList {
 
     @Override
     public boolean addAll(Collection<? extends Byte> c) {
-        boolean modified = false;
-        for (Byte b : c) {
-            add(b);
-            modified = true;
-        }
-        return modified;
+        return addAll(store.size(), c);
     }
 
     @Override
     public boolean addAll(int index, Collection<? extends Byte> c) {
-        Objects.checkIndex(index, size + 1);
+        Objects.checkIndex(index, store.size() + 1);
         if (c.isEmpty()) {
             return false;
         }
-        if (index == size) {
-            return addAll(c);
+        if (c instanceof NumberListImpl && ((NumberListImpl) c).base == base) {
+            // цифри іншого списку вже в діапазоні основи
+            DigitStore source = ((NumberListImpl) c).store;
+            byte[] digits = new byte[source.size()];
+            source.read(0, digits, 0, digits.length);
+            store.addAll(index, digits, 0, digits.length);
+            changed();
+            return true;
         }
-        Node succ = node(index);
-        boolean modified = false;
+        byte[] digits = new byte[c.size()];
+        int i = 0;
         for (Byte b : c) {
             if (b == null) {
                 throw new NullPointerException("Digit cannot be null");
             }
-            byte v = b;
-            checkDigitRange(v);
-            linkBefore(v, succ);
-            modified = true;
+            digits[i++] = b;
+        }
+        int invalid = DigitKernels.INSTANCE.firstInvalid(digits, 0, i, base);
+        if (invalid >= 0) {
+            checkDigitRange(digits[invalid]);
+        }
+        store.addAll(index, digits, 0, i);
+        changed();
+        return true;
+    }
+
+    /**
+     * Moves all digits of <tt>other</tt> to the end of this list;
+     * <tt>other</tt> becomes empty.
+     *
+     * @param other - list in the same scale of notation.
+     * @return this list.
+     * @see #splice(int, NumberListImpl)
+     */
+    public NumberListImpl append(NumberListImpl other) {
+        return splice(store.size(), other);
+    }
+
+    /**
+     * Moves all digits of <tt>other</tt> into this list before position
+     * <tt>index</tt>; <tt>other</tt> becomes empty and stays usable.<p>
+     *
+     * Digits are not boxed or checked again. If this list is empty, the
+     * lists just exchange their storage. Otherwise the digits are moved
+     * without allocating per digit: linked lists take over the node pages
+     * of <tt>other</tt> and link its chain in at the position in constant
+     * time (short lists are copied), tree lists take over its blocks, and
+     * other layouts copy the digits in one bulk insert.
+     *
+     * @param index - position of the first moved digit.
+     * @param other - list in the same scale of notation.
+     * @return this list.
+     * @throws IllegalArgumentException if <tt>other</tt> is <tt>null</tt>,
+     * this list or in another scale of notation.
+     */
+    public NumberListImpl splice(int index, NumberListImpl other) {
+        Objects.checkIndex(index, store.size() + 1);
+        if (other == null) {
+            throw new IllegalArgumentException("List cannot be null");
+        }
+        if (other == this) {
+            throw new IllegalArgumentException("List cannot be spliced into itself");
+        }
+        if (other.base != base) {
+            throw new IllegalArgumentException("Scales of notation differ: " + base + " and " + other.base);
+        }
+        if (other.store.size() == 0) {
+            return this;
+        }
+        if (store.size() == 0 && store.getClass() == other.store.getClass()) {
+            DigitStore empty = store;
+            store = other.store;
+            other.store = empty;
+        } else {
+            store.transferFrom(index, other.store);
         }
-        return modified;
+        changed();
+        other.changed();
+        if (other.shadow != null) {
+            other.shadow.reset(BigInteger.ZERO);
+            other.markShadowValid();
+        }
+        return this;
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
-        Objects.requireNonNull(c);
-        boolean modified = false;
-        Node current = head;
-        while (current != null) {
-            Node next = current.next;
-            if (c.contains(current.value)) {
-                unlink(current);
-                modified = true;
-            }
-            current = next;
-        }
-        return modified;
+        return removeIf(c, true);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
+        return removeIf(c, false);
+    }
+
+    /**
+     * Видаляє цифри, для яких належність до <tt>c</tt> дорівнює <tt>contained</tt>.
+     * Цифр лише <tt>base</tt> різних, тому <tt>c.contains</tt> викликається
+     * для кожного значення один раз, а список перебудовується за один прохід.
+     */
+    private boolean removeIf(Collection<?> c, boolean contained) {
         Objects.requireNonNull(c);
-        boolean modified = false;
-        Node current = head;
-        while (current != null) {
-            Node next = current.next;
-            if (!c.contains(current.value)) {
-                unlink(current);
-                modified = true;
+        boolean[] drop = new boolean[base];
+        for (int d = 0; d < base; d++) {
+            drop[d] = c.contains((byte) d) == contained;
+        }
+        byte[] digits = toDigitArray();
+        int kept = 0;
+        for (byte d : digits) {
+            if (!drop[d]) {
+                digits[kept++] = d;
             }
-            current = next;
         }
-        return modified;
+        if (kept == digits.length) {
+            return false;
+        }
+        store.clear();
+        store.addAll(0, digits, 0, kept);
+        changed();
+        return true;
     }
 
     @Override
     public void clear() {
-        Node current = head;
-        while (current != null) {
-            Node next = current.next;
-            current.prev = null;
-            current.next = null;
-            current = next;
+        store.clear();
+        changed();
+        if (shadow != null) {
+            shadow.reset(BigInteger.ZERO);
+            markShadowValid();
         }
-        head = tail = null;
-        size = 0;
     }
 
-    private Node node(int index) {
-        Objects.checkIndex(index, size);
-        if (index < (size >> 1)) {
-            Node x = head;
-            for (int i = 0; i < index; i++) {
-                x = x.next;
-            }
-            return x;
-        } else {
-            Node x = tail;
-            for (int i = size - 1; i > index; i--) {
-                x = x.prev;
-            }
-            return x;
-        }
+    /**
+     * Releases memory, which was kept by the list after removal of
+     * elements (e.g. after {@link #clear()} of a big list). Remaining
+     * digits are packed in list order.
+     */
+    public void trimToSize() {
+        store.trimToSize();
+        changed();
     }
 
     @Override
     public Byte get(int index) {
-        return node(index).value;
+        Objects.checkIndex(index, store.size());
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        byte value = store.get(index);
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.POSITIONAL_ACCESS, 1, start);
+        }
+        if (storage == Storage.AUTO) {
+            observe(false, index);
+        }
+        return value;
     }
 
     @Override
@@ -582,9 +1825,17 @@ public class NumberListImpl implements NumberList {
         }
         byte v = element;
         checkDigitRange(v);
-        Node n = node(index);
-        byte old = n.value;
-        n.value = v;
+        Objects.checkIndex(index, store.size());
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        byte old = store.get(index);
+        store.set(index, v);
+        changed();
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.POSITIONAL_ACCESS, 1, start);
+        }
+        if (storage == Storage.AUTO) {
+            observe(false, index);
+        }
         return old;
     }
 
@@ -595,19 +1846,30 @@ public class NumberListImpl implements NumberList {
         }
         byte v = element;
         checkDigitRange(v);
-        if (index == size) {
-            linkLast(v);
-        } else {
-            Node succ = node(index);
-            linkBefore(v, succ);
+        Objects.checkIndex(index, store.size() + 1);
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        store.add(index, v);
+        changed();
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.POSITIONAL_ACCESS, 1, start);
+        }
+        if (storage == Storage.AUTO) {
+            observe(true, index);
         }
     }
 
     @Override
     public Byte remove(int index) {
-        Node n = node(index);
-        byte old = n.value;
-        unlink(n);
+        Objects.checkIndex(index, store.size());
+        long start = NumberListMetrics.ENABLED ? System.nanoTime() : 0L;
+        byte old = store.remove(index);
+        changed();
+        if (NumberListMetrics.ENABLED) {
+            NumberListMetrics.record(Op.POSITIONAL_ACCESS, 1, start);
+        }
+        if (storage == Storage.AUTO) {
+            observe(true, index);
+        }
         return old;
     }
 
@@ -616,15 +1878,7 @@ public class NumberListImpl implements NumberList {
         if (!(o instanceof Byte)) {
             return -1;
         }
-        Byte target = (Byte) o;
-        int idx = 0;
-        for (Node n = head; n != null; n = n.next) {
-            if (Objects.equals(n.value, target)) {
-                return idx;
-            }
-            idx++;
-        }
-        return -1;
+        return store.indexOf((Byte) o, 0);
     }
 
     @Override
@@ -632,35 +1886,21 @@ public class NumberListImpl implements NumberList {
         if (!(o instanceof Byte)) {
             return -1;
         }
-        Byte target = (Byte) o;
-        int idx = size - 1;
-        for (Node n = tail; n != null; n = n.prev) {
-            if (Objects.equals(n.value, target)) {
-                return idx;
-            }
-            idx--;
-        }
-        return -1;
+        return store.lastIndexOf((Byte) o);
     }
 
     private final class ListItr implements ListIterator<Byte> {
-        private Node next;
-        private Node lastReturned;
         private int nextIndex;
+        private int lastReturned = -1;
 
         ListItr(int index) {
-            Objects.checkIndex(index, size + 1);
-            if (index == size) {
-                next = null;
-            } else {
-                next = node(index);
-            }
+            Objects.checkIndex(index, store.size() + 1);
             nextIndex = index;
         }
 
         @Override
         public boolean hasNext() {
-            return next != null;
+            return nextIndex < store.size();
         }
 
         @Override
@@ -668,10 +1908,8 @@ public class NumberListImpl implements NumberList {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            lastReturned = next;
-            next = next.next;
-            nextIndex++;
-            return lastReturned.value;
+            lastReturned = nextIndex++;
+            return store.get(lastReturned);
         }
 
         @Override
@@ -684,14 +1922,8 @@ public class NumberListImpl implements NumberList {
             if (!hasPrevious()) {
                 throw new NoSuchElementException();
             }
-            if (next == null) {
-                next = tail;
-            } else {
-                next = next.prev;
-            }
-            lastReturned = next;
-            nextIndex--;
-            return lastReturned.value;
+            lastReturned = --nextIndex;
+            return store.get(lastReturned);
         }
 
         @Override
@@ -706,22 +1938,20 @@ public class NumberListImpl implements NumberList {
 
         @Override
         public void remove() {
-            if (lastReturned == null) {
+            if (lastReturned < 0) {
                 throw new IllegalStateException();
             }
-            Node toRemove = lastReturned;
-            if (toRemove == next) {
-                next = next.next;
-            } else {
+            store.remove(lastReturned);
+            changed();
+            if (lastReturned < nextIndex) {
                 nextIndex--;
             }
-            unlink(toRemove);
-            lastReturned = null;
+            lastReturned = -1;
         }
 
         @Override
         public void set(Byte e) {
-            if (lastReturned == null) {
+            if (lastReturned < 0) {
                 throw new IllegalStateException();
             }
             if (e == null) {
@@ -729,7 +1959,8 @@ public class NumberListImpl implements NumberList {
             }
             byte v = e;
             checkDigitRange(v);
-            lastReturned.value = v;
+            store.set(lastReturned, v);
+            changed();
         }
 
         @Override
@@ -739,13 +1970,9 @@ public class NumberListImpl implements NumberList {
             }
             byte v = e;
             checkDigitRange(v);
-            if (next == null) {
-                linkLast(v);
-            } else {
-                linkBefore(v, next);
-            }
-            nextIndex++;
-            lastReturned = null;
+            store.add(nextIndex++, v);
+            changed();
+            lastReturned = -1;
         }
     }
 
@@ -761,16 +1988,13 @@ public class NumberListImpl implements NumberList {
 
     @Override
     public List<Byte> subList(int fromIndex, int toIndex) {
-        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+        if (fromIndex < 0 || toIndex > store.size() || fromIndex > toIndex) {
             throw new IndexOutOfBoundsException();
         }
-        NumberListImpl sub = new NumberListImpl(this.base);
-        int i = 0;
-        for (Node n = head; n != null && i < toIndex; n = n.next, i++) {
-            if (i >= fromIndex) {
-                sub.add(n.value);
-            }
-        }
+        NumberListImpl sub = new NumberListImpl(this.base, storage);
+        byte[] digits = new byte[toIndex - fromIndex];
+        store.read(fromIndex, digits, 0, digits.length);
+        sub.linkAll(digits);
         return sub;
     }
 
@@ -779,75 +2003,54 @@ public class NumberListImpl implements NumberList {
         if (index1 == index2) {
             return true;
         }
-        Node n1 = node(index1);
-        Node n2 = node(index2);
-        byte tmp = n1.value;
-        n1.value = n2.value;
-        n2.value = tmp;
+        Objects.checkIndex(index1, store.size());
+        Objects.checkIndex(index2, store.size());
+        byte tmp = store.get(index1);
+        store.set(index1, store.get(index2));
+        store.set(index2, tmp);
+        changed();
         return true;
     }
 
     @Override
     public void sortAscending() {
-        if (size <= 1) {
-            return;
-        }
-        byte[] arr = new byte[size];
-        int i = 0;
-        for (Node n = head; n != null; n = n.next) {
-            arr[i++] = n.value;
-        }
-        Arrays.sort(arr);
-        i = 0;
-        for (Node n = head; n != null; n = n.next) {
-            n.value = arr[i++];
-        }
+        countingSort(false);
     }
 
     @Override
     public void sortDescending() {
-        if (size <= 1) {
+        countingSort(true);
+    }
+
+    /**
+     * Різних цифр лише base, тому сортування підрахунком; на серіях
+     * сортуються самі серії. Відсортований AUTO-список має не більше
+     * base серій і переходить на них.
+     */
+    private void countingSort(boolean descending) {
+        if (store.size() <= 1) {
             return;
         }
-        byte[] arr = new byte[size];
-        int i = 0;
-        for (Node n = head; n != null; n = n.next) {
-            arr[i++] = n.value;
-        }
-        Arrays.sort(arr);
-        i = size - 1;
-        for (Node n = head; n != null; n = n.next) {
-            n.value = arr[i--];
+        store.sort(base, descending);
+        changed();
+        if (storage == Storage.AUTO && store.size() >= AUTO_MIN_SIZE
+            && !(store instanceof RunLengthDigitStore)
+            && store.size() / base >= AUTO_RUN_LENGTH) {
+            migrate(new RunLengthDigitStore());
         }
     }
 
     @Override
     public void shiftLeft() {
-        if (size <= 1) return;
-        Node oldHead = head;
-        Node newHead = head.next;
-
-        newHead.prev = null;
-        head = newHead;
-
-        tail.next = oldHead;
-        oldHead.prev = tail;
-        oldHead.next = null;
-        tail = oldHead;
+        if (store.size() <= 1) return;
+        store.rotateLeft();
+        changed();
     }
 
     @Override
     public void shiftRight() {
-        if (size <= 1) return;
-        Node oldTail = tail;
-        Node newTail = tail.prev;
-
-        newTail.next = null;
-        tail = newTail;
-
-        oldTail.prev = null;
-        oldTail.next = head;
-        head.prev = oldTail;
-        head = oldTail;
+        if (store.size() <= 1) return;
+        store.rotateRight();
+        changed();
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation of <tt>NumberListImpl</tt>.<p>
+ *
+ * Enabled by system property <tt>-Dua.kpi.comsys.numberlist.metrics=true</tt>
+ * at startup. When disabled, {@link #ENABLED} is a constant <tt>false</tt>
+ * and every instrumentation point in the list is removed by the JIT.
+ */
+final class NumberListMetrics implements NumberListMetricsMXBean {
+
+    static final String PROPERTY = "ua.kpi.comsys.numberlist.metrics";
+    static final String OBJECT_NAME = "ua.kpi.comsys.test2:type=NumberListMetrics";
+
+    /**
+     * Операції, для яких збирається статистика.
+     */
+    enum Op {
+        FROM_STRING, FROM_FILE, CHANGE_SCALE, ADDITIONAL_OPERATION,
+        TO_DECIMAL_STRING, SAVE_LIST, POSITIONAL_ACCESS
+    }
+
+    private static final int BUCKETS = 64;
+
+    static final NumberListMetrics INSTANCE =
+        Boolean.getBoolean(PROPERTY) ? register(new NumberListMetrics()) : null;
+
+    static final boolean ENABLED = INSTANCE != null;
+
+    private final LongAdder[] calls = new LongAdder[Op.values().length];
+    private final LongAdder[] digits = new LongAdder[Op.values().length];
+    private final AtomicLongArray[] latencies = new AtomicLongArray[Op.values().length];
+
+    /**
+     * Посилання на відстежувані списки; зібрані збирачем сміття списки
+     * потрапляють у {@link #collected} і видаляються при наступному додаванні.
+     */
+    private final Set<WeakReference<NumberListImpl>> lists = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<NumberListImpl> collected = new ReferenceQueue<>();
+
+    /**
+     * Кількість переходів між сховищами за ключем "звідки->куди".
+     */
+    private final Map<String, LongAdder> switches = new ConcurrentHashMap<>();
+
+    NumberListMetrics() {
+        for (int i = 0; i < calls.length; i++) {
+            calls[i] = new LongAdder();
+            digits[i] = new LongAdder();
+            latencies[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    private static NumberListMetrics register(NumberListMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register " + OBJECT_NAME, e);
+        }
+        return metrics;
+    }
+
+    /**
+     * Records single call that started at <tt>startNanos</tt>.
+     */
+    static void record(Op op, long digitCount, long startNanos) {
+        INSTANCE.add(op, digitCount, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records that a list moved its digits from one store to another.
+     */
+    static void recordSwitch(String from, String to) {
+        INSTANCE.addSwitch(from, to);
+    }
+
+    /**
+     * Starts tracking list for digit and node gauges.
+     */
+    static void track(NumberListImpl list) {
+        INSTANCE.addList(list);
+    }
+
+    void add(Op op, long digitCount, long nanos) {
+        int i = op.ordinal();
+        calls[i].increment();
+        digits[i].add(digitCount);
+        latencies[i].incrementAndGet(bucket(nanos));
+    }
+
+    void addSwitch(String from, String to) {
+        switches.computeIfAbsent(from + "->" + to, k -> new LongAdder()).increment();
+    }
+
+    void addList(NumberListImpl list) {
+        for (Reference<? extends NumberListImpl> ref; (ref = collected.poll()) != null; ) {
+            lists.remove(ref);
+        }
+        lists.add(new WeakReference<>(list, collected));
+    }
+
+    /**
+     * Returns number of references kept, including those to lists which
+     * were collected since the last {@link #addList}.
+     */
+    int trackedLists() {
+        return lists.size();
+    }
+
+    static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    @Override
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Op op : Op.values()) {
+            result.put(op.name(), calls[op.ordinal()].sum());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getDigitsProcessed() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Op op : Op.values()) {
+            result.put(op.name(), digits[op.ordinal()].sum());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, long[]> getLatencyHistograms() {
+        Map<String, long[]> result = new LinkedHashMap<>();
+        for (Op op : Op.values()) {
+            AtomicLongArray h = latencies[op.ordinal()];
+            long[] copy = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = h.get(i);
+            }
+            result.put(op.name(), copy);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getStoreSwitches() {
+        Map<String, Long> result = new TreeMap<>();
+        switches.forEach((key, count) -> result.put(key, count.sum()));
+        return result;
+    }
+
+    @Override
+    public long getTotalDigits() {
+        long total = 0;
+        for (WeakReference<NumberListImpl> ref : lists) {
+            NumberListImpl list = ref.get();
+            if (list != null) {
+                total += list.sizeForStats();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalNodes() {
+        long total = 0;
+        for (WeakReference<NumberListImpl> ref : lists) {
+            NumberListImpl list = ref.get();
+            if (list != null) {
+                total += list.nodeCount();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int getLiveLists() {
+        int count = 0;
+        for (WeakReference<NumberListImpl> ref : lists) {
+            if (ref.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < calls.length; i++) {
+            calls[i].reset();
+            digits[i].reset();
+            for (int j = 0; j < BUCKETS; j++) {
+                latencies[i].set(j, 0);
+            }
+        }
+        switches.clear();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Map;
+
+/**
+ * Management interface of <tt>NumberListImpl</tt> metrics, published as
+ * <tt>ua.kpi.comsys.test2:type=NumberListMetrics</tt>.<p>
+ *
+ * Maps, except store switches, are keyed by operation name. Latency
+ * histograms have 64 buckets, bucket <tt>i</tt> counts calls that took
+ * from <tt>2^i</tt> to <tt>2^(i+1) - 1</tt> nanoseconds.
+ */
+public interface NumberListMetricsMXBean {
+
+    Map<String, Long> getCallCounts();
+
+    Map<String, Long> getDigitsProcessed();
+
+    Map<String, long[]> getLatencyHistograms();
+
+    /**
+     * Returns how many times lists with automatic storage moved their
+     * digits, keyed by <tt>"from-&gt;to"</tt> store names.
+     */
+    Map<String, Long> getStoreSwitches();
+
+    /**
+     * Returns number of digits held by all reachable lists.
+     */
+    long getTotalDigits();
+
+    /**
+     * Returns number of storage nodes held by all reachable lists.
+     */
+    long getTotalNodes();
+
+    int getLiveLists();
+
+    void reset();
+}
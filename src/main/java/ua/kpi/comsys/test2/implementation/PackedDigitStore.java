@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+/**
+ * Digits packed one per byte into a single heap array.<p>
+ *
+ * Positional access and appends take constant time and bulk reads are a
+ * single array copy, which suits lists that are built by appending and
+ * then converted. Inserts and removes in the middle move the tail of the
+ * array.
+ */
+final class PackedDigitStore implements DigitStore {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private byte[] digits = new byte[DEFAULT_CAPACITY];
+    private int size;
+
+    private void ensureCapacity(int required) {
+        if (required > digits.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.max(required, digits.length + (long) (digits.length >> 1)));
+            digits = Arrays.copyOf(digits, capacity);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int index) {
+        return digits[index];
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        digits[index] = value;
+    }
+
+    @Override
+    public void add(byte value) {
+        ensureCapacity(size + 1);
+        digits[size++] = value;
+    }
+
+    @Override
+    public void add(int index, byte value) {
+        ensureCapacity(size + 1);
+        System.arraycopy(digits, index, digits, index + 1, size - index);
+        digits[index] = value;
+        size++;
+    }
+
+    @Override
+    public void addAll(int index, byte[] src, int from, int to) {
+        int len = to - from;
+        ensureCapacity(size + len);
+        System.arraycopy(digits, index, digits, index + len, size - index);
+        System.arraycopy(src, from, digits, index, len);
+        size += len;
+    }
+
+    @Override
+    public byte remove(int index) {
+        byte old = digits[index];
+        System.arraycopy(digits, index + 1, digits, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    @Override
+    public void read(int from, byte[] dst, int off, int len) {
+        System.arraycopy(digits, from, dst, off, len);
+    }
+
+    @Override
+    public void write(int index, byte[] src, int from, int to) {
+        System.arraycopy(src, from, digits, index, to - from);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public void rotateLeft() {
+        if (size <= 1) return;
+        byte first = digits[0];
+        System.arraycopy(digits, 1, digits, 0, size - 1);
+        digits[size - 1] = first;
+    }
+
+    @Override
+    public void rotateRight() {
+        if (size <= 1) return;
+        byte last = digits[size - 1];
+        System.arraycopy(digits, 0, digits, 1, size - 1);
+        digits[0] = last;
+    }
+
+    @Override
+    public int indexOf(byte value, int from) {
+        for (int i = from; i < size; i++) {
+            if (digits[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (digits[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long capacity() {
+        return digits.length;
+    }
+
+    @Override
+    public void trimToSize() {
+        digits = Arrays.copyOf(digits, Math.max(size, DEFAULT_CAPACITY));
+    }
+
+    @Override
+    public String name() {
+        return "packed";
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Precomputed conversion parameters for a single scale of notation.<p>
+ *
+ * Digits are grouped into chunks of {@link #digitsPerLong} digits, so that
+ * a chunk value always fits into <tt>long</tt>. Big numbers are converted
+ * with divide-and-conquer over the table of powers
+ * <tt>base^(digitsPerLong * 2^i)</tt>, which is built once per base and
+ * shared by all lists.<p>
+ *
+ * Conversions between power-of-two bases only regroup bits and never
+ * touch <tt>BigInteger</tt> arithmetic, see {@link #regroup}.
+ */
+final class Radix {
+
+    static final int MIN_BASE = 2;
+    static final int MAX_BASE = 36;
+
+    /**
+     * Символи цифр для систем числення до 36 включно.
+     */
+    static final char[] DIGIT_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /**
+     * Кількість чанків, нижче якої використовується простий (квадратичний) алгоритм.
+     */
+    private static final int SIMPLE_THRESHOLD_CHUNKS = 20;
+
+    /**
+     * Розмір блоку, яким regroup читає джерело цифр.
+     */
+    private static final int REGROUP_BLOCK = 4096;
+
+    private static final Radix[] CACHE = new Radix[MAX_BASE + 1];
+
+    static {
+        for (int b = MIN_BASE; b <= MAX_BASE; b++) {
+            CACHE[b] = new Radix(b);
+        }
+    }
+
+    final int base;
+
+    /**
+     * Кількість біт на цифру для степенів двійки, інакше 0.
+     */
+    final int bitsPerDigit;
+    final int digitsPerLong;
+    final long chunkPow;
+    private final BigInteger bigChunkPow;
+    private final double log2Base;
+
+    /**
+     * powers[i] = base^(digitsPerLong * 2^i); розширюється за потреби.
+     */
+    private volatile BigInteger[] powers;
+
+    private Radix(int base) {
+        this.base = base;
+        this.bitsPerDigit = Integer.bitCount(base) == 1 ? Integer.numberOfTrailingZeros(base) : 0;
+        int k = 0;
+        long pow = 1;
+        while (pow <= Long.MAX_VALUE / base) {
+            pow *= base;
+            k++;
+        }
+        this.digitsPerLong = k;
+        this.chunkPow = pow;
+        this.bigChunkPow = BigInteger.valueOf(pow);
+        this.log2Base = Math.log(base) / Math.log(2);
+        this.powers = new BigInteger[] {bigChunkPow};
+    }
+
+    /**
+     * Returns conversion parameters for the given base.
+     *
+     * @param base - scale of notation, from 2 to 36
+     * @return shared <tt>Radix</tt> instance.
+     */
+    static Radix of(int base) {
+        if (base < MIN_BASE || base > MAX_BASE) {
+            throw new IllegalArgumentException(
+                "Base " + base + " is out of range " + MIN_BASE + ".." + MAX_BASE);
+        }
+        return CACHE[base];
+    }
+
+    BigInteger power(int i) {
+        BigInteger[] p = powers;
+        if (i < p.length) {
+            return p[i];
+        }
+        synchronized (this) {
+            p = powers;
+            if (i >= p.length) {
+                int old = p.length;
+                p = Arrays.copyOf(p, i + 1);
+                for (int j = old; j <= i; j++) {
+                    p[j] = p[j - 1].multiply(p[j - 1]);
+                }
+                powers = p;
+            }
+            return p[i];
+        }
+    }
+
+    /**
+     * Returns name of the conversion path used for a number with the
+     * given count of digits in this base (for diagnostics).
+     */
+    String algorithm(int digitCount) {
+        if (bitsPerDigit != 0) {
+            return "bit-regroup";
+        }
+        return digitCount <= digitsPerLong * SIMPLE_THRESHOLD_CHUNKS ? "simple" : "divide-and-conquer";
+    }
+
+    /**
+     * Converts digits <tt>[from, to)</tt>, most significant first, into a number.
+     */
+    BigInteger toBigInteger(byte[] digits, int from, int to) {
+        return toBigInteger(DigitSource.of(digits), from, to);
+    }
+
+    /**
+     * Converts digits <tt>[from, to)</tt> of the source, most significant
+     * first, into a number. The source is read in leaf-sized blocks, so it
+     * never has to be copied into one array.
+     */
+    BigInteger toBigInteger(DigitSource digits, int from, int to) {
+        return toBigInteger(digits, from, to, ConversionMonitor.NONE);
+    }
+
+    /**
+     * Same as {@link #toBigInteger(DigitSource, int, int)}, reporting every
+     * converted leaf of digits to the monitor.
+     */
+    BigInteger toBigInteger(DigitSource digits, int from, int to, ConversionMonitor monitor) {
+        if (bitsPerDigit != 0) {
+            return new BigInteger(1, regroup(digits, from, to, bitsPerDigit, Byte.SIZE, monitor));
+        }
+        return toBigIntegerDivideAndConquer(digits, from, to,
+            new byte[digitsPerLong * SIMPLE_THRESHOLD_CHUNKS], monitor);
+    }
+
+    private BigInteger toBigIntegerDivideAndConquer(DigitSource digits, int from, int to, byte[] leaf,
+                                                    ConversionMonitor monitor) {
+        int len = to - from;
+        if (len <= digitsPerLong * SIMPLE_THRESHOLD_CHUNKS) {
+            digits.read(from, leaf, 0, len);
+            BigInteger value = toBigIntegerSimple(leaf, 0, len);
+            monitor.advance(len);
+            return value;
+        }
+        int i = 0;
+        while ((long) digitsPerLong << (i + 1) < len) {
+            i++;
+        }
+        int split = to - (digitsPerLong << i);
+        BigInteger high = toBigIntegerDivideAndConquer(digits, from, split, leaf, monitor);
+        BigInteger low = toBigIntegerDivideAndConquer(digits, split, to, leaf, monitor);
+        return high.multiply(power(i)).add(low);
+    }
+
+    private BigInteger toBigIntegerSimple(byte[] digits, int from, int to) {
+        int first = (to - from) % digitsPerLong;
+        if (first == 0 && to > from) {
+            first = digitsPerLong;
+        }
+        BigInteger result = BigInteger.valueOf(chunk(digits, from, from + first));
+        for (int pos = from + first; pos < to; pos += digitsPerLong) {
+            result = result.multiply(bigChunkPow)
+                .add(BigInteger.valueOf(chunk(digits, pos, pos + digitsPerLong)));
+        }
+        return result;
+    }
+
+    private long chunk(byte[] digits, int from, int to) {
+        long c = 0;
+        for (int i = from; i < to; i++) {
+            c = c * base + digits[i];
+        }
+        return c;
+    }
+
+    /**
+     * Converts non-negative number into digits, most significant first,
+     * without leading zeros. Zero is represented by single digit.
+     */
+    byte[] toDigits(BigInteger value) {
+        return toDigits(value, ConversionMonitor.NONE);
+    }
+
+    /**
+     * Same as {@link #toDigits(BigInteger)}, reporting every written leaf
+     * of digits to the monitor.
+     */
+    byte[] toDigits(BigInteger value, ConversionMonitor monitor) {
+        if (value.signum() == 0) {
+            return new byte[] {0};
+        }
+        if (bitsPerDigit != 0) {
+            byte[] bytes = value.toByteArray();
+            return regroup(DigitSource.of(bytes), 0, bytes.length, Byte.SIZE, bitsPerDigit, monitor);
+        }
+        int count = (int) (value.bitLength() / log2Base) + 2;
+        byte[] out = new byte[count];
+        writeDigits(value, out, count, count, monitor);
+        int lead = 0;
+        while (out[lead] == 0) {
+            lead++;
+        }
+        return lead == 0 ? out : Arrays.copyOfRange(out, lead, count);
+    }
+
+    /**
+     * Writes exactly <tt>count</tt> digits of <tt>value</tt> (padded with
+     * zeros) into <tt>out</tt>, ending right before position <tt>end</tt>.
+     */
+    private void writeDigits(BigInteger value, byte[] out, int end, int count, ConversionMonitor monitor) {
+        if (count <= digitsPerLong * SIMPLE_THRESHOLD_CHUNKS) {
+            writeDigitsSimple(value, out, end, count);
+            monitor.advance(count);
+            return;
+        }
+        int i = 0;
+        while ((long) digitsPerLong << (i + 1) < count) {
+            i++;
+        }
+        int lowCount = digitsPerLong << i;
+        BigInteger[] qr = value.divideAndRemainder(power(i));
+        writeDigits(qr[1], out, end, lowCount, monitor);
+        writeDigits(qr[0], out, end - lowCount, count - lowCount, monitor);
+    }
+
+    private void writeDigitsSimple(BigInteger value, byte[] out, int end, int count) {
+        int pos = end;
+        int start = end - count;
+        while (value.signum() > 0 && pos > start) {
+            if (value.bitLength() < Long.SIZE) {
+                long c = value.longValue();
+                while (c > 0 && pos > start) {
+                    out[--pos] = (byte) (c % base);
+                    c /= base;
+                }
+                return;
+            }
+            BigInteger[] qr = value.divideAndRemainder(bigChunkPow);
+            long c = qr[1].longValue();
+            value = qr[0];
+            for (int j = 0; j < digitsPerLong && pos > start; j++) {
+                out[--pos] = (byte) (c % base);
+                c /= base;
+            }
+        }
+    }
+
+    /**
+     * Converts decimal digits <tt>[from, to)</tt> into digits of this base,
+     * most significant first, without leading zeros.<p>
+     *
+     * Decimal digits are combined 18 at a time into <tt>long</tt> chunks
+     * and then through the divide-and-conquer tree of powers of 10. For
+     * base 10 itself the digits are taken as is.
+     */
+    byte[] fromDecimal(byte[] decimal, int from, int to) {
+        return fromDecimal(decimal, from, to, ConversionMonitor.NONE);
+    }
+
+    byte[] fromDecimal(byte[] decimal, int from, int to, ConversionMonitor monitor) {
+        if (base == 10) {
+            while (from < to - 1 && decimal[from] == 0) {
+                from++;
+            }
+            monitor.advance(to - from);
+            return Arrays.copyOfRange(decimal, from, to);
+        }
+        return toDigits(of(10).toBigInteger(DigitSource.of(decimal), from, to, monitor), monitor);
+    }
+
+    /**
+     * Parses decimal number without sign into digit values.
+     *
+     * @return decimal digits, or <tt>null</tt> if the text is empty or
+     * contains a character other than '0'..'9'.
+     */
+    static byte[] parseDecimal(CharSequence text) {
+        int len = text.length();
+        if (len == 0) {
+            return null;
+        }
+        byte[] digits = new byte[len];
+        for (int i = 0; i < len; i++) {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return null;
+            }
+            digits[i] = (byte) d;
+        }
+        return digits;
+    }
+
+    /**
+     * Returns <tt>true</tt> if both bases are powers of two, so that
+     * conversion between them is a pure regrouping of bits.
+     */
+    static boolean isBitRegroupable(int sourceBase, int targetBase) {
+        return of(sourceBase).bitsPerDigit != 0 && of(targetBase).bitsPerDigit != 0;
+    }
+
+    /**
+     * Regroups digits <tt>[from, to)</tt> of <tt>sourceBits</tt> bits each,
+     * most significant first, into digits of <tt>targetBits</tt> bits each.
+     * Works in linear time through a bit accumulator.
+     *
+     * @return target digits without leading zeros; zero is single digit.
+     */
+    static byte[] regroup(byte[] digits, int from, int to, int sourceBits, int targetBits) {
+        return regroup(DigitSource.of(digits), from, to, sourceBits, targetBits);
+    }
+
+    /**
+     * Same as {@link #regroup(byte[], int, int, int, int)}, reading the
+     * source in blocks from the least significant end.
+     */
+    static byte[] regroup(DigitSource digits, int from, int to, int sourceBits, int targetBits) {
+        return regroup(digits, from, to, sourceBits, targetBits, ConversionMonitor.NONE);
+    }
+
+    static byte[] regroup(DigitSource digits, int from, int to, int sourceBits, int targetBits,
+                          ConversionMonitor monitor) {
+        long totalBits = (long) (to - from) * sourceBits;
+        int count = (int) Math.max(1, (totalBits + targetBits - 1) / targetBits);
+        byte[] out = new byte[count];
+        int sourceMask = (1 << sourceBits) - 1;
+        int targetMask = (1 << targetBits) - 1;
+        int pos = count;
+        long acc = 0;
+        int accBits = 0;
+        byte[] block = new byte[Math.min(REGROUP_BLOCK, Math.max(to - from, 0))];
+        for (int end = to; end > from; ) {
+            int start = Math.max(from, end - block.length);
+            int len = end - start;
+            digits.read(start, block, 0, len);
+            for (int i = len - 1; i >= 0; i--) {
+                acc |= (long) (block[i] & sourceMask) << accBits;
+                accBits += sourceBits;
+                while (accBits >= targetBits) {
+                    out[--pos] = (byte) (acc & targetMask);
+                    acc >>>= targetBits;
+                    accBits -= targetBits;
+                }
+            }
+            end = start;
+            monitor.advance(len);
+        }
+        if (accBits > 0 && pos > 0) {
+            out[--pos] = (byte) (acc & targetMask);
+        }
+        int lead = 0;
+        while (lead < count - 1 && out[lead] == 0) {
+            lead++;
+        }
+        return lead == 0 ? out : Arrays.copyOfRange(out, lead, count);
+    }
+}
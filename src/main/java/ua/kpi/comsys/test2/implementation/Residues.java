@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.stream.IntStream;
+
+/**
+ * Remainders of numbers given by their digits, computed without turning
+ * the digits into a number.<p>
+ *
+ * Digits are read in blocks and folded in batches: a batch of digits forms
+ * a value below <tt>2^31</tt>, and the running remainder is multiplied by
+ * <tt>base^batch</tt> once per batch, so there is one reduction per batch
+ * rather than per digit. Remainders of consecutive parts of a number are
+ * joined with powers of the base, which lets the parts be reduced in
+ * parallel, see {@link #parallel}. Moduli up to <tt>Long.MAX_VALUE</tt>
+ * are supported.
+ */
+final class Residues {
+
+    /**
+     * Розмір блоку, яким читається джерело цифр.
+     */
+    private static final int BLOCK = 8192;
+
+    /**
+     * Кількість цифр у частині при паралельному обчисленні.
+     */
+    static final int CHUNK = 1 << 16;
+
+    private Residues() {
+    }
+
+    /**
+     * Returns the number formed by digits <tt>[from, to)</tt> of the source,
+     * most significant first, modulo <tt>m</tt>.
+     */
+    static long of(DigitSource digits, int from, int to, int base, long m) {
+        int batch = 0;
+        long batchPow = 1;
+        while (batchPow * base <= Integer.MAX_VALUE) {
+            batchPow *= base;
+            batch++;
+        }
+        long shift = batchPow % m;
+        byte[] block = new byte[Math.min(to - from, BLOCK)];
+        long r = 0;
+        for (int pos = from; pos < to; pos += block.length) {
+            int len = Math.min(block.length, to - pos);
+            digits.read(pos, block, 0, len);
+            int i = 0;
+            for (; i + batch <= len; i += batch) {
+                long c = 0;
+                for (int j = i; j < i + batch; j++) {
+                    c = c * base + block[j];
+                }
+                r = addMod(mulMod(r, shift, m), c % m, m);
+            }
+            if (i < len) {
+                long c = 0;
+                long pow = 1;
+                for (int j = i; j < len; j++) {
+                    c = c * base + block[j];
+                    pow *= base;
+                }
+                r = addMod(mulMod(r, pow % m, m), c % m, m);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Returns the number formed by the digits modulo <tt>m</tt>, reducing
+     * parts of {@value #CHUNK} digits in parallel.
+     */
+    static long parallel(byte[] digits, int base, long m) {
+        int chunks = chunks(digits.length);
+        DigitSource source = DigitSource.of(digits);
+        long[] parts = IntStream.range(0, chunks).parallel()
+            .mapToLong(k -> of(source, chunkStart(k), chunkEnd(k, digits.length), base, m))
+            .toArray();
+        long shift = powMod(base, CHUNK, m);
+        long r = 0;
+        for (int k = 0; k < chunks; k++) {
+            int len = chunkEnd(k, digits.length) - chunkStart(k);
+            r = addMod(mulMod(r, len == CHUNK ? shift : powMod(base, len, m), m), parts[k], m);
+        }
+        return r;
+    }
+
+    /**
+     * Returns number of parts of {@value #CHUNK} digits (the last may be
+     * shorter) in <tt>length</tt> digits.
+     */
+    static int chunks(int length) {
+        // у long, щоб довжина близько Integer.MAX_VALUE не переповнювалась
+        return (int) ((length + (long) CHUNK - 1) / CHUNK);
+    }
+
+    static int chunkStart(int k) {
+        return (int) ((long) k * CHUNK);
+    }
+
+    static int chunkEnd(int k, int length) {
+        return (int) Math.min(length, (k + 1L) * CHUNK);
+    }
+
+    /**
+     * Returns <tt>b^e mod m</tt>.
+     */
+    static long powMod(long b, long e, long m) {
+        long r = 1 % m;
+        b %= m;
+        for (; e > 0; e >>= 1) {
+            if ((e & 1) != 0) {
+                r = mulMod(r, b, m);
+            }
+            b = mulMod(b, b, m);
+        }
+        return r;
+    }
+
+    /**
+     * Returns <tt>a * b mod m</tt> for <tt>a, b</tt> in <tt>[0, m)</tt>
+     * without overflow.
+     */
+    static long mulMod(long a, long b, long m) {
+        if (Math.multiplyHigh(a, b) == 0) {
+            long p = a * b;
+            if (p >= 0) {
+                return p % m;
+            }
+        }
+        // добуток не вміщується в long: подвоєння з додаванням
+        long r = 0;
+        for (int bit = 63 - Long.numberOfLeadingZeros(b); bit >= 0; bit--) {
+            r = addMod(r, r, m);
+            if ((b >>> bit & 1) != 0) {
+                r = addMod(r, a, m);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Returns <tt>a + b mod m</tt> for <tt>a, b</tt> in <tt>[0, m)</tt>.
+     */
+    static long addMod(long a, long b, long m) {
+        long s = a - (m - b);
+        return s < 0 ? s + m : s;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of results of {@link NumberListImpl#changeScale(int)} and
+ * {@link NumberListImpl#additionalOperation(ua.kpi.comsys.test2.NumberList)},
+ * shared by all lists of the process.<p>
+ *
+ * Off by default. It is turned on by system property
+ * <tt>-Dua.kpi.comsys.numberlist.resultCache=&lt;max digits&gt;</tt> or by
+ * {@link #setShared(ResultCache)}. Only conversions through a big number
+ * are cached; copies and bit regrouping are cheaper than hashing.<p>
+ *
+ * Results are keyed by a SHA-256 hash of the operation, its parameter
+ * and the scales of notation and digits of the operands, so operands are
+ * not kept. The cache is split into stripes with their own lock and least
+ * recently used order; a key always falls into the same stripe. The limit
+ * on the total number of cached digits is common to all stripes: any
+ * result up to the limit is admitted, and when the total goes over it the
+ * stripes give up their least recently used entries in turn. Returned
+ * lists share cached digits copy-on-write, so changing them does not
+ * affect the cache.
+ */
+public final class ResultCache {
+
+    static final String PROPERTY = "ua.kpi.comsys.numberlist.resultCache";
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    /**
+     * Розмір блоку, яким цифри операндів подаються в хеш.
+     */
+    private static final int BLOCK = 8192;
+
+    private static volatile ResultCache shared = fromProperty();
+
+    private final DigitLru<Key>[] stripes;
+    private final long maxDigits;
+
+    /**
+     * Сума цифр у всіх смугах.
+     */
+    private final AtomicLong digits = new AtomicLong();
+
+    /**
+     * Смуга, з якої витісняється наступний запис.
+     */
+    private final AtomicInteger victim = new AtomicInteger();
+
+    /**
+     * Constructs empty cache with {@value #DEFAULT_STRIPES} stripes.
+     *
+     * @param maxDigits - maximum total number of cached digits.
+     */
+    public ResultCache(long maxDigits) {
+        this(maxDigits, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs empty cache.
+     *
+     * @param maxDigits - maximum total number of cached digits.
+     * @param stripes - number of independently locked parts, a power of two.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ResultCache(long maxDigits, int stripes) {
+        if (maxDigits <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxDigits);
+        }
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two: " + stripes);
+        }
+        this.maxDigits = maxDigits;
+        this.stripes = new DigitLru[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new DigitLru<>(maxDigits);
+        }
+    }
+
+    private static ResultCache fromProperty() {
+        long maxDigits = Long.getLong(PROPERTY, 0L);
+        return maxDigits > 0 ? new ResultCache(maxDigits) : null;
+    }
+
+    /**
+     * Returns the cache used by all lists, or <tt>null</tt> if results are
+     * not cached.
+     */
+    public static ResultCache getShared() {
+        return shared;
+    }
+
+    /**
+     * Sets the cache used by all lists.
+     *
+     * @param cache - new cache, or <tt>null</tt> to stop caching.
+     */
+    public static void setShared(ResultCache cache) {
+        shared = cache;
+    }
+
+    /**
+     * Builds key of an operation on the lists.
+     *
+     * @param operation - name of the operation.
+     * @param parameter - parameter of the operation (e.g. target base).
+     * @param operands - lists with digits, which are not pending.
+     */
+    static Key key(String operation, int parameter, NumberListImpl... operands) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        md.update(operation.getBytes(StandardCharsets.US_ASCII));
+        update(md, parameter);
+        byte[] block = new byte[BLOCK];
+        for (NumberListImpl list : operands) {
+            int size = list.size();
+            update(md, list.getBase());
+            update(md, size);
+            for (int from = 0; from < size; from += BLOCK) {
+                int len = Math.min(BLOCK, size - from);
+                list.readDigits(from, block, 0, len);
+                md.update(block, 0, len);
+            }
+        }
+        return new Key(md.digest());
+    }
+
+    private static void update(MessageDigest md, int value) {
+        md.update((byte) (value >>> 24));
+        md.update((byte) (value >>> 16));
+        md.update((byte) (value >>> 8));
+        md.update((byte) value);
+    }
+
+    private DigitLru<Key> stripe(Key key) {
+        return stripes[key.hashCode() & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns cached digits of the result, or <tt>null</tt>. The array must
+     * not be changed.
+     */
+    byte[] get(Key key) {
+        return stripe(key).get(key);
+    }
+
+    /**
+     * Stores digits of the result; the array must not be changed afterwards.
+     */
+    void put(Key key, byte[] value) {
+        long total = digits.addAndGet(stripe(key).put(key, value));
+        // усі смуги порожні: решту перевищення знімуть інші потоки
+        for (int empty = 0; total > maxDigits && empty < stripes.length; ) {
+            long removed = stripes[victim.getAndIncrement() & (stripes.length - 1)].evictEldest();
+            if (removed == 0) {
+                empty++;
+                total = digits.get();
+            } else {
+                empty = 0;
+                total = digits.addAndGet(-removed);
+            }
+        }
+    }
+
+    /**
+     * Removes all results.
+     */
+    public void clear() {
+        for (DigitLru<Key> stripe : stripes) {
+            digits.addAndGet(-stripe.clear());
+        }
+    }
+
+    /**
+     * Returns number of operations answered from the cache.
+     */
+    public long getHitCount() {
+        long total = 0;
+        for (DigitLru<Key> stripe : stripes) {
+            total += stripe.hits();
+        }
+        return total;
+    }
+
+    /**
+     * Returns number of operations which were computed.
+     */
+    public long getMissCount() {
+        long total = 0;
+        for (DigitLru<Key> stripe : stripes) {
+            total += stripe.misses();
+        }
+        return total;
+    }
+
+    /**
+     * Returns share of operations answered from the cache, from 0 to 1.
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Returns number of results removed to stay within the limit.
+     */
+    public long getEvictionCount() {
+        long total = 0;
+        for (DigitLru<Key> stripe : stripes) {
+            total += stripe.evictions();
+        }
+        return total;
+    }
+
+    /**
+     * Returns total number of cached digits.
+     */
+    public long getDigits() {
+        return digits.get();
+    }
+
+    /**
+     * Returns number of cached results.
+     */
+    public int getEntryCount() {
+        int total = 0;
+        for (DigitLru<Key> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    public long getMaxDigits() {
+        return maxDigits;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCache[entries=" + getEntryCount() + ", digits=" + getDigits()
+            + ", hitRate=" + getHitRate() + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    /**
+     * SHA-256 операції та операндів.
+     */
+    static final class Key {
+        private final byte[] hash;
+        private final int hashCode;
+
+        Key(byte[] hash) {
+            this.hash = hash;
+            this.hashCode = Arrays.hashCode(hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(hash, ((Key) o).hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+/**
+ * Digits stored as runs of equal digits.<p>
+ *
+ * Run <tt>i</tt> holds digit <tt>digits[head + i]</tt> at positions
+ * <tt>[end(i - 1), end(i))</tt>, where <tt>end(i) = ends[head + i] -
+ * origin</tt>, so the ends are the prefix sum of run lengths and a position
+ * is found by binary search. Neighbouring runs always have different
+ * digits. Memory and the cost of most operations depend on the number of
+ * runs, not on the number of digits.<p>
+ *
+ * Runs occupy the middle of the arrays, starting at <tt>head</tt>, and
+ * the ends are counted from <tt>origin</tt>. A digit is removed from or
+ * inserted at the front by moving <tt>origin</tt> and, when a run appears
+ * or disappears, <tt>head</tt>, so both ends of the number, and therefore
+ * rotations, change only the first and last runs.
+ */
+final class RunLengthDigitStore implements DigitStore {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private byte[] digits = new byte[DEFAULT_CAPACITY];
+    private int[] ends = new int[DEFAULT_CAPACITY];
+    private int head;
+    private int runs;
+
+    /**
+     * Позиція початку числа в значеннях ends; може переповнюватись, бо
+     * кінці серій завжди читаються як різниця з нею.
+     */
+    private int origin;
+
+    /**
+     * Серія, знайдена останньою; послідовний доступ перевіряє її першою.
+     */
+    private int lastRun;
+
+    @Override
+    public int size() {
+        return runs == 0 ? 0 : end(runs - 1);
+    }
+
+    /**
+     * Returns number of runs.
+     */
+    int runCount() {
+        return runs;
+    }
+
+    private int end(int run) {
+        return ends[head + run] - origin;
+    }
+
+    private void setEnd(int run, int end) {
+        ends[head + run] = end + origin;
+    }
+
+    private int start(int run) {
+        return run == 0 ? 0 : end(run - 1);
+    }
+
+    /**
+     * Returns run which contains position <tt>index</tt>.
+     */
+    private int runAt(int index) {
+        int k = lastRun;
+        if (k < runs && start(k) <= index && index < end(k)) {
+            return k;
+        }
+        if (k + 1 < runs && end(k) <= index && index < end(k + 1)) {
+            return lastRun = k + 1;
+        }
+        int lo = 0;
+        int hi = runs - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (end(mid) > index) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lastRun = lo;
+    }
+
+    /**
+     * Moves runs to the middle of arrays with room for <tt>extra</tt> more
+     * runs and some more on both sides, so that following changes at
+     * either end do not move them again for a while.
+     */
+    private void relocate(int extra) {
+        int needed = runs + extra;
+        int capacity = Math.max(digits.length, needed + (needed >> 1) + 2);
+        int front = (capacity - needed) / 2;
+        byte[] newDigits = capacity == digits.length ? digits : new byte[capacity];
+        int[] newEnds = capacity == ends.length ? ends : new int[capacity];
+        System.arraycopy(digits, head, newDigits, front, runs);
+        System.arraycopy(ends, head, newEnds, front, runs);
+        digits = newDigits;
+        ends = newEnds;
+        head = front;
+    }
+
+    private void insertRuns(int at, int count) {
+        if (head + runs + count > digits.length) {
+            relocate(count);
+        }
+        System.arraycopy(digits, head + at, digits, head + at + count, runs - at);
+        System.arraycopy(ends, head + at, ends, head + at + count, runs - at);
+        runs += count;
+    }
+
+    private void removeRuns(int at, int count) {
+        if (at == 0) {
+            head += count;
+        } else {
+            System.arraycopy(digits, head + at + count, digits, head + at, runs - at - count);
+            System.arraycopy(ends, head + at + count, ends, head + at, runs - at - count);
+        }
+        runs -= count;
+        lastRun = 0;
+    }
+
+    private void shiftEnds(int fromRun, int delta) {
+        for (int i = head + fromRun; i < head + runs; i++) {
+            ends[i] += delta;
+        }
+    }
+
+    /**
+     * Makes <tt>index</tt> a boundary of runs.
+     *
+     * @return run which starts at <tt>index</tt> (<tt>runs</tt> for the end).
+     */
+    private int split(int index) {
+        if (index == size()) {
+            return runs;
+        }
+        int k = runAt(index);
+        if (start(k) == index) {
+            return k;
+        }
+        insertRuns(k + 1, 1);
+        digits[head + k + 1] = digits[head + k];
+        ends[head + k + 1] = ends[head + k];
+        setEnd(k, index);
+        return k + 1;
+    }
+
+    /**
+     * Joins run <tt>run</tt> with the previous one, if they have the same digit.
+     */
+    private void mergeWithPrevious(int run) {
+        if (run > 0 && run < runs && digits[head + run - 1] == digits[head + run]) {
+            ends[head + run - 1] = ends[head + run];
+            removeRuns(run, 1);
+        }
+    }
+
+    private static int countRuns(byte[] src, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (i == from || src[i] != src[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Inserts runs of <tt>src[from, to)</tt> before run <tt>at</tt>, which
+     * starts at position <tt>index</tt>. Ends of later runs are not shifted.
+     */
+    private int encode(int at, int index, byte[] src, int from, int to) {
+        int count = countRuns(src, from, to);
+        insertRuns(at, count);
+        int run = at - 1;
+        int pos = index;
+        for (int i = from; i < to; i++) {
+            if (i == from || src[i] != src[i - 1]) {
+                run++;
+                digits[head + run] = src[i];
+            }
+            setEnd(run, ++pos);
+        }
+        return count;
+    }
+
+    @Override
+    public byte get(int index) {
+        return digits[head + runAt(index)];
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        if (digits[head + runAt(index)] == value) {
+            return;
+        }
+        int run = split(index);
+        split(index + 1);
+        digits[head + run] = value;
+        mergeWithPrevious(run + 1);
+        mergeWithPrevious(run);
+    }
+
+    @Override
+    public void add(byte value) {
+        if (runs > 0 && digits[head + runs - 1] == value) {
+            ends[head + runs - 1]++;
+            return;
+        }
+        int size = size();
+        insertRuns(runs, 1);
+        digits[head + runs - 1] = value;
+        setEnd(runs - 1, size + 1);
+    }
+
+    /**
+     * Inserts digit; at the front only the first run or <tt>head</tt>
+     * changes.
+     */
+    @Override
+    public void add(int index, byte value) {
+        if (index == size()) {
+            add(value);
+        } else if (index > 0) {
+            addAll(index, new byte[] {value}, 0, 1);
+        } else if (digits[head] == value) {
+            origin--;
+        } else {
+            if (head == 0) {
+                relocate(1);
+            }
+            head--;
+            runs++;
+            lastRun = 0;
+            digits[head] = value;
+            // нова серія закінчується там, де досі починалось число
+            ends[head] = origin;
+            origin--;
+        }
+    }
+
+    @Override
+    public void addAll(int index, byte[] src, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        int at = split(index);
+        int count = encode(at, index, src, from, to);
+        shiftEnds(at + count, to - from);
+        mergeWithPrevious(at + count);
+        mergeWithPrevious(at);
+    }
+
+    /**
+     * Removes digit; at the front only the first run or <tt>head</tt>
+     * changes.
+     */
+    @Override
+    public byte remove(int index) {
+        int k = runAt(index);
+        byte old = digits[head + k];
+        if (index == 0) {
+            origin++;
+        } else {
+            shiftEnds(k, -1);
+        }
+        if (end(k) == start(k)) {
+            removeRuns(k, 1);
+            mergeWithPrevious(k);
+        }
+        return old;
+    }
+
+    @Override
+    public void read(int from, byte[] dst, int off, int len) {
+        if (len == 0) {
+            return;
+        }
+        int k = runAt(from);
+        int pos = from;
+        int end = from + len;
+        while (pos < end) {
+            int n = Math.min(end(k), end) - pos;
+            Arrays.fill(dst, off, off + n, digits[head + k]);
+            off += n;
+            pos += n;
+            k++;
+        }
+    }
+
+    @Override
+    public void write(int index, byte[] src, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        int first = split(index);
+        int last = split(index + (to - from));
+        removeRuns(first, last - first);
+        int count = encode(first, index, src, from, to);
+        mergeWithPrevious(first + count);
+        mergeWithPrevious(first);
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        runs = 0;
+        origin = 0;
+        lastRun = 0;
+    }
+
+    @Override
+    public void rotateLeft() {
+        add(remove(0));
+    }
+
+    @Override
+    public void rotateRight() {
+        add(0, remove(size() - 1));
+    }
+
+    @Override
+    public int indexOf(byte value, int from) {
+        if (from >= size()) {
+            return -1;
+        }
+        for (int i = runAt(from); i < runs; i++) {
+            if (digits[head + i] == value) {
+                return Math.max(from, start(i));
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte value) {
+        for (int i = runs - 1; i >= 0; i--) {
+            if (digits[head + i] == value) {
+                return end(i) - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts digits run by run and replaces all runs with at most
+     * <tt>base</tt> sorted runs.
+     */
+    @Override
+    public void sort(int base, boolean descending) {
+        int[] counts = new int[base];
+        for (int i = 0; i < runs; i++) {
+            counts[digits[head + i]] += end(i) - start(i);
+        }
+        if (digits.length < base) {
+            digits = new byte[base];
+            ends = new int[base];
+        }
+        clear();
+        int pos = 0;
+        for (int k = 0; k < base; k++) {
+            int d = descending ? base - 1 - k : k;
+            if (counts[d] > 0) {
+                pos += counts[d];
+                digits[runs] = (byte) d;
+                ends[runs] = pos;
+                runs++;
+            }
+        }
+    }
+
+    @Override
+    public long capacity() {
+        return digits.length;
+    }
+
+    @Override
+    public void trimToSize() {
+        int capacity = Math.max(runs, DEFAULT_CAPACITY);
+        digits = Arrays.copyOfRange(digits, head, head + capacity);
+        ends = Arrays.copyOfRange(ends, head, head + capacity);
+        head = 0;
+    }
+
+    @Override
+    public String name() {
+        return "run-length";
+    }
+}
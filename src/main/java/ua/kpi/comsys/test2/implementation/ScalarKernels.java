@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+/**
+ * Plain loops over digits; used when the Vector API is not available.
+ */
+final class ScalarKernels implements DigitKernels {
+
+    @Override
+    public int firstInvalid(byte[] digits, int from, int to, int base) {
+        for (int i = from; i < to; i++) {
+            if (digits[i] < 0 || digits[i] >= base) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void histogram(byte[] digits, int from, int to, int[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[digits[i]]++;
+        }
+    }
+
+    @Override
+    public void toAscii(byte[] digits, int from, int to, byte[] out, int off) {
+        for (int i = from; i < to; i++) {
+            out[off + i - from] = (byte) Radix.DIGIT_CHARS[digits[i]];
+        }
+    }
+
+    @Override
+    public void or(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        for (int i = 0; i < len; i++) {
+            a[aOff + i] |= b[bOff + i];
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.ref.Cleaner;
+
+/**
+ * Contiguous off-heap array of digits, one byte per digit, in a
+ * {@link MemorySegment}.<p>
+ *
+ * Inserts, removes and shifts move the tail of the array with a single
+ * bulk segment copy. All segments of a store come from its own shared
+ * arena. The array grows by doubling inside that arena, so growth closes
+ * nothing; segments it outgrew stay allocated until {@link #trimToSize()}
+ * or {@link #close()}, which is at most as much memory again as the
+ * current capacity. {@link #close()} releases all memory of the store at
+ * once; after that every access fails with <tt>IllegalStateException</tt>.
+ * A store which is not closed releases its memory when the garbage
+ * collector finds it unreachable.
+ */
+final class SegmentDigitStore implements DigitStore {
+
+    private static final long DEFAULT_CAPACITY = 64;
+
+    /**
+     * Закриває арени сховищ, які стали недосяжними без close().
+     */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Memory memory = new Memory();
+    private final Cleaner.Cleanable cleanable;
+    private MemorySegment segment;
+    private int size;
+
+    SegmentDigitStore() {
+        segment = memory.arena.allocate(DEFAULT_CAPACITY);
+        cleanable = CLEANER.register(this, memory);
+    }
+
+    /**
+     * Арена сховища. Окремий об'єкт, щоб дія Cleaner не тримала саме
+     * сховище досяжним.
+     */
+    private static final class Memory implements Runnable {
+        volatile Arena arena = Arena.ofShared();
+
+        @Override
+        public void run() {
+            arena.close();
+        }
+    }
+
+    /**
+     * Переносить цифри в новий сегмент тієї ж арени; старий звільняється
+     * разом з ареною.
+     */
+    private void grow(long capacity) {
+        MemorySegment newSegment = memory.arena.allocate(capacity);
+        MemorySegment.copy(segment, 0, newSegment, 0, size);
+        segment = newSegment;
+    }
+
+    private void ensureCapacity(long required) {
+        long capacity = segment.byteSize();
+        if (required > capacity) {
+            grow(Math.max(required, capacity << 1));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int index) {
+        return segment.get(ValueLayout.JAVA_BYTE, index);
+    }
+
+    @Override
+    public void set(int index, byte value) {
+        segment.set(ValueLayout.JAVA_BYTE, index, value);
+    }
+
+    @Override
+    public void add(byte value) {
+        ensureCapacity(size + 1L);
+        segment.set(ValueLayout.JAVA_BYTE, size, value);
+        size++;
+    }
+
+    @Override
+    public void add(int index, byte value) {
+        ensureCapacity(size + 1L);
+        MemorySegment.copy(segment, index, segment, index + 1L, size - index);
+        segment.set(ValueLayout.JAVA_BYTE, index, value);
+        size++;
+    }
+
+    @Override
+    public void addAll(int index, byte[] digits, int from, int to) {
+        int len = to - from;
+        ensureCapacity((long) size + len);
+        MemorySegment.copy(segment, index, segment, (long) index + len, size - index);
+        MemorySegment.copy(digits, from, segment, ValueLayout.JAVA_BYTE, index, len);
+        size += len;
+    }
+
+    @Override
+    public byte remove(int index) {
+        byte old = segment.get(ValueLayout.JAVA_BYTE, index);
+        MemorySegment.copy(segment, index + 1L, segment, index, size - index - 1L);
+        size--;
+        return old;
+    }
+
+    @Override
+    public void read(int from, byte[] dst, int off, int len) {
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, from, dst, off, len);
+    }
+
+    @Override
+    public void write(int index, byte[] digits, int from, int to) {
+        MemorySegment.copy(digits, from, segment, ValueLayout.JAVA_BYTE, index, to - from);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public void rotateLeft() {
+        if (size <= 1) return;
+        byte first = segment.get(ValueLayout.JAVA_BYTE, 0);
+        MemorySegment.copy(segment, 1, segment, 0, size - 1L);
+        segment.set(ValueLayout.JAVA_BYTE, size - 1L, first);
+    }
+
+    @Override
+    public void rotateRight() {
+        if (size <= 1) return;
+        byte last = segment.get(ValueLayout.JAVA_BYTE, size - 1L);
+        MemorySegment.copy(segment, 0, segment, 1, size - 1L);
+        segment.set(ValueLayout.JAVA_BYTE, 0, last);
+    }
+
+    @Override
+    public int indexOf(byte value, int from) {
+        for (long i = from; i < size; i++) {
+            if (segment.get(ValueLayout.JAVA_BYTE, i) == value) {
+                return (int) i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte value) {
+        for (long i = size - 1L; i >= 0; i--) {
+            if (segment.get(ValueLayout.JAVA_BYTE, i) == value) {
+                return (int) i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long capacity() {
+        return segment.byteSize();
+    }
+
+    @Override
+    public void trimToSize() {
+        if (segment.byteSize() > Math.max(size, DEFAULT_CAPACITY)) {
+            // нова арена: лише так звільняються переросші сегменти
+            Arena arena = Arena.ofShared();
+            MemorySegment newSegment = arena.allocate(Math.max(size, DEFAULT_CAPACITY));
+            MemorySegment.copy(segment, 0, newSegment, 0, size);
+            Arena old = memory.arena;
+            memory.arena = arena;
+            segment = newSegment;
+            old.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
+    @Override
+    public String name() {
+        return "off-heap";
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running value of a number which is built by appending digits.<p>
+ *
+ * Appended digits are first combined into a <tt>long</tt> chunk of
+ * {@link Radix#digitsPerLong} digits. Full chunks are kept like a binary
+ * counter: two blocks of <tt>k * 2^i</tt> digits are merged into one block
+ * of <tt>k * 2^(i+1)</tt> digits as soon as they appear, with the same
+ * table of powers the divide-and-conquer conversion uses. Each digit is
+ * therefore merged <tt>O(log n)</tt> times and the whole value never has
+ * to be rebuilt from digits.
+ */
+final class ShadowValue {
+
+    /**
+     * Рівень блоку, значення якого задане ззовні і має довільну довжину.
+     * Такий блок завжди лежить на дні стеку і ніколи не зливається.
+     */
+    private static final int SEED = Integer.MAX_VALUE;
+
+    private final Radix radix;
+
+    /**
+     * Блоки від старших цифр до молодших; levels[i] -- рівень blocks[i].
+     */
+    private final List<BigInteger> blocks = new ArrayList<>();
+    private final List<Integer> levels = new ArrayList<>();
+
+    private long chunk;
+    private int chunkDigits;
+
+    /**
+     * Значення modCount списку, якому відповідає це значення.
+     */
+    int validAt;
+    boolean valid;
+
+    ShadowValue(Radix radix) {
+        this.radix = radix;
+        reset(BigInteger.ZERO);
+    }
+
+    /**
+     * Starts over from the given value of all digits so far.
+     */
+    void reset(BigInteger value) {
+        blocks.clear();
+        levels.clear();
+        blocks.add(value);
+        levels.add(SEED);
+        chunk = 0;
+        chunkDigits = 0;
+    }
+
+    /**
+     * Updates the value as <tt>value * base + digit</tt>.
+     */
+    void append(byte digit) {
+        chunk = chunk * radix.base + digit;
+        if (++chunkDigits == radix.digitsPerLong) {
+            push(BigInteger.valueOf(chunk));
+            chunk = 0;
+            chunkDigits = 0;
+        }
+    }
+
+    private void push(BigInteger block) {
+        int level = 0;
+        int top = blocks.size() - 1;
+        while (levels.get(top) == level) {
+            block = blocks.remove(top).multiply(radix.power(level)).add(block);
+            levels.remove(top);
+            top--;
+            level++;
+        }
+        blocks.add(block);
+        levels.add(level);
+    }
+
+    /**
+     * Returns value of all appended digits. Blocks are collapsed into one,
+     * so that repeated calls without appends are cheap.
+     */
+    BigInteger value() {
+        BigInteger value = blocks.get(0);
+        for (int i = 1; i < blocks.size(); i++) {
+            value = value.multiply(radix.power(levels.get(i))).add(blocks.get(i));
+        }
+        if (chunkDigits > 0) {
+            value = value.multiply(BigInteger.valueOf(radix.base).pow(chunkDigits))
+                .add(BigInteger.valueOf(chunk));
+        }
+        reset(value);
+        return value;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD loops over digits with the Vector API, in the widest shape the
+ * CPU supports. Tails shorter than a vector go through {@link ScalarKernels}.
+ */
+final class VectorKernels implements DigitKernels {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    /**
+     * Гістограма порівнює вектор з кожним значенням цифри окремо, тому
+     * для великих основ простий цикл не повільніший.
+     */
+    private static final int MAX_HISTOGRAM_BASE = 16;
+
+    private final ScalarKernels tail = new ScalarKernels();
+
+    VectorKernels() {
+        if (SPECIES.length() < 16) {
+            throw new UnsupportedOperationException("Vectors are too short: " + SPECIES);
+        }
+    }
+
+    @Override
+    public int firstInvalid(byte[] digits, int from, int to, int base) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            // від'ємні цифри як беззнакові більші за будь-яку основу
+            VectorMask<Byte> bad = ByteVector.fromArray(SPECIES, digits, i)
+                .compare(VectorOperators.UNSIGNED_GE, (byte) base);
+            if (bad.anyTrue()) {
+                return i + bad.firstTrue();
+            }
+        }
+        return tail.firstInvalid(digits, i, to, base);
+    }
+
+    @Override
+    public void histogram(byte[] digits, int from, int to, int[] counts) {
+        if (counts.length > MAX_HISTOGRAM_BASE) {
+            tail.histogram(digits, from, to, counts);
+            return;
+        }
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, digits, i);
+            for (int d = 0; d < counts.length; d++) {
+                counts[d] += v.compare(VectorOperators.EQ, (byte) d).trueCount();
+            }
+        }
+        tail.histogram(digits, i, to, counts);
+    }
+
+    @Override
+    public void toAscii(byte[] digits, int from, int to, byte[] out, int off) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, digits, i);
+            // '0' + d для 0..9 і 'A' + d - 10 = '0' + d + 7 для літер
+            v.add((byte) '0')
+                .add((byte) ('A' - '0' - 10), v.compare(VectorOperators.GT, (byte) 9))
+                .intoArray(out, off + i - from);
+        }
+        tail.toAscii(digits, i, to, out, off + i - from);
+    }
+
+    @Override
+    public void or(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        int i = 0;
+        int bound = SPECIES.loopBound(len);
+        for (; i < bound; i += SPECIES.length()) {
+            ByteVector.fromArray(SPECIES, a, aOff + i)
+                .or(ByteVector.fromArray(SPECIES, b, bOff + i))
+                .intoArray(a, aOff + i);
+        }
+        tail.or(a, aOff + i, b, bOff + i, len - i);
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+}
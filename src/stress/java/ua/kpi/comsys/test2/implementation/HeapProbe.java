@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.NotificationEmitter;
+
+/**
+ * Measures used heap after full collections.<p>
+ *
+ * Every measurement requests a collection through {@link MemoryMXBean#gc()},
+ * waits for the collector to report it with a GC notification and reads
+ * heap usage. Collections are repeated until two readings agree within
+ * {@value #TOLERANCE} bytes, so objects waiting for finalization or
+ * reference processing do not distort the result.
+ */
+final class HeapProbe {
+
+    /**
+     * Тип сповіщення про завершене збирання сміття (com.sun.management).
+     */
+    private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+    private static final int MAX_COLLECTIONS = 10;
+
+    static final long TOLERANCE = 64 * 1024;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final Semaphore collections = new Semaphore(0);
+
+    HeapProbe() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                    if (GC_NOTIFICATION.equals(notification.getType())) {
+                        collections.release();
+                    }
+                }, null, null);
+            }
+        }
+    }
+
+    /**
+     * Returns bytes of heap in use after garbage is collected.
+     */
+    long usedAfterGc() {
+        long previous = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_COLLECTIONS; i++) {
+            collections.drainPermits();
+            memory.gc();
+            try {
+                collections.tryAcquire(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long used = memory.getHeapMemoryUsage().getUsed();
+            if (Math.abs(previous - used) <= TOLERANCE) {
+                return used;
+            }
+            previous = used;
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Returns maximum size of the heap, or -1 if it is not limited.
+     */
+    long maxHeap() {
+        return memory.getHeapMemoryUsage().getMax();
+    }
+}
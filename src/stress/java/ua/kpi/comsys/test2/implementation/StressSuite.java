@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Memory footprint and scaling of <tt>NumberListImpl</tt> on huge numbers.<p>
+ *
+ * For every heap storage the suite builds a list of ternary digits and
+ * measures retained heap per digit with {@link HeapProbe}, and from that
+ * the largest list which fits into the maximum heap. Then it times every
+ * operation on numbers of 10^3 decimal digits up to the maximum size, in
+ * steps of half a decade, and fits the exponent <tt>k</tt> of
+ * <tt>time ~ n^k</tt> by least squares over log-log points (sizes below
+ * 10^4 are too noisy and only printed).<p>
+ *
+ * The suite fails (exit status 1) when a fitted exponent exceeds the limit
+ * of the expected complexity class of the operation, or when a storage
+ * takes more heap per digit than expected.<p>
+ *
+ * Usage: <tt>StressSuite [--min digits] [--max digits] [--heap-digits digits]</tt>;
+ * by default sizes go from 10^3 to 10^6 decimal digits and heap is
+ * measured on 10^7 digits. Sizes up to 10^8 need a heap of several
+ * gigabytes (e.g. <tt>-Xmx8g</tt>).
+ */
+public final class StressSuite {
+
+    /**
+     * Операції з очікуваним класом складності і найбільшим допустимим
+     * показником степеня. Перетворення основ -- поділ навпіл із
+     * множенням BigInteger (Тоом-Кук, n^1.465), тому межа 1.8.
+     * Конструктор з файлу лишає число десятковим і лише копіює цифри.
+     */
+    enum Operation {
+        FROM_STRING("n^1.47 log n", 1.8),
+        FROM_FILE("n", 1.3),
+        CHANGE_SCALE("n^1.47 log n", 1.8),
+        ADDITIONAL_OPERATION("n^1.47 log n", 1.8),
+        SORT_ASCENDING("n", 1.3),
+        SORT_DESCENDING("n", 1.3),
+        SHIFT_LEFT("1", 0.4),
+        SHIFT_RIGHT("1", 0.4),
+        SAVE_LIST("n^1.47 log n", 1.8);
+
+        final String expected;
+        final double maxExponent;
+
+        Operation(String expected, double maxExponent) {
+            this.expected = expected;
+            this.maxExponent = maxExponent;
+        }
+    }
+
+    /**
+     * Найбільша допустима кількість байтів купи на цифру для кожного
+     * сховища (з запасом на зростання масивів у 1.5 раза).
+     */
+    private static final Map<Storage, Double> MAX_BYTES_PER_DIGIT = new EnumMap<>(Storage.class);
+
+    static {
+        MAX_BYTES_PER_DIGIT.put(Storage.LINKED, 14.0);
+        MAX_BYTES_PER_DIGIT.put(Storage.PACKED, 1.6);
+        MAX_BYTES_PER_DIGIT.put(Storage.GAP_BUFFER, 1.6);
+        MAX_BYTES_PER_DIGIT.put(Storage.TREE, 1.6);
+        // випадкові трійкові цифри: дві серії на три цифри, 5 байтів на серію
+        MAX_BYTES_PER_DIGIT.put(Storage.RUN_LENGTH, 8.0);
+    }
+
+    /**
+     * Розміри, менші за цей, лише друкуються: на них домінує шум.
+     */
+    private static final long MIN_FIT_SIZE = 10_000;
+
+    private static final int SHIFTS_PER_SAMPLE = 1000;
+
+    private final long minDigits;
+    private final long maxDigits;
+    private final long heapDigits;
+    private final HeapProbe probe = new HeapProbe();
+    private final Random random = new Random(45);
+    private final List<String> failures = new ArrayList<>();
+
+    StressSuite(long minDigits, long maxDigits, long heapDigits) {
+        if (minDigits < 1 || maxDigits < minDigits || maxDigits > Integer.MAX_VALUE / 4 || heapDigits < 1) {
+            throw new IllegalArgumentException("Invalid sizes");
+        }
+        this.minDigits = minDigits;
+        this.maxDigits = maxDigits;
+        this.heapDigits = heapDigits;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long min = 1_000;
+        long max = 1_000_000;
+        long heap = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 == args.length) {
+                usage();
+            }
+            long value = (long) Double.parseDouble(args[++i]);
+            switch (args[i - 1]) {
+                case "--min":
+                    min = value;
+                    break;
+                case "--max":
+                    max = value;
+                    break;
+                case "--heap-digits":
+                    heap = value;
+                    break;
+                default:
+                    usage();
+            }
+        }
+        StressSuite suite = new StressSuite(min, max, heap < 0 ? 10_000_000 : heap);
+        suite.measureHeap();
+        suite.measureScaling();
+        if (!suite.failures.isEmpty()) {
+            System.out.println();
+            suite.failures.forEach(failure -> System.out.println("REGRESSION: " + failure));
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: StressSuite [--min digits] [--max digits] [--heap-digits digits]");
+        System.exit(2);
+    }
+
+    void measureHeap() {
+        System.out.printf("== Retained heap, %d ternary digits ==%n", heapDigits);
+        long maxHeap = probe.maxHeap();
+        for (Storage storage : MAX_BYTES_PER_DIGIT.keySet()) {
+            long before = probe.usedAfterGc();
+            NumberListImpl list = randomList(storage, (int) heapDigits);
+            long after = probe.usedAfterGc();
+            Reference.reachabilityFence(list);
+            list = null;
+
+            double perDigit = Math.max(0, after - before) / (double) heapDigits;
+            String fits = maxHeap < 0 || perDigit == 0 ? "unlimited" : String.format("%.3g", maxHeap / perDigit);
+            System.out.printf("%-12s %8.2f bytes/digit, max digits in heap: %s%n", storage, perDigit, fits);
+            double limit = MAX_BYTES_PER_DIGIT.get(storage);
+            if (perDigit > limit) {
+                failures.add(String.format("%s storage takes %.2f bytes per digit, expected at most %.1f",
+                    storage, perDigit, limit));
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Випадкові трійкові цифри дописуються блоками, щоб не тримати
+     * окремий масив розміром зі список під час вимірювання.
+     */
+    private NumberListImpl randomList(Storage storage, int digits) {
+        NumberListImpl list = NumberListImpl.empty(3, storage);
+        byte[] block = new byte[8192];
+        for (int done = 0; done < digits; done += block.length) {
+            int len = Math.min(block.length, digits - done);
+            for (int i = 0; i < len; i++) {
+                block[i] = (byte) random.nextInt(3);
+            }
+            list.appendDigits(block, 0, len);
+        }
+        return list;
+    }
+
+    private String randomDecimal(long digits) {
+        char[] chars = new char[(int) digits];
+        chars[0] = (char) ('1' + random.nextInt(9));
+        for (int i = 1; i < chars.length; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    void measureScaling() throws IOException {
+        List<Long> sizes = new ArrayList<>();
+        for (int k = 0; ; k++) {
+            long n = Math.round(minDigits * Math.pow(10, k / 2.0));
+            if (n > maxDigits) {
+                break;
+            }
+            sizes.add(n);
+        }
+        // прогрів JIT на малому числі
+        sample(Math.min(minDigits, 1000), 5);
+
+        Map<Operation, double[]> times = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) {
+            times.put(op, new double[sizes.size()]);
+        }
+        System.out.printf("== Time per call, ms ==%n%-22s", "decimal digits");
+        for (long n : sizes) {
+            System.out.printf("%12d", n);
+        }
+        System.out.println();
+        for (int i = 0; i < sizes.size(); i++) {
+            long n = sizes.get(i);
+            Map<Operation, Double> sample = sample(n, (int) Math.max(1, Math.min(10, 100_000 / n)));
+            for (Operation op : Operation.values()) {
+                times.get(op)[i] = sample.get(op);
+            }
+        }
+
+        for (Operation op : Operation.values()) {
+            System.out.printf("%-22s", op);
+            for (double t : times.get(op)) {
+                System.out.printf("%12.4f", t / 1e6);
+            }
+            double exponent = fitExponent(sizes, times.get(op));
+            if (Double.isNaN(exponent)) {
+                System.out.printf("   k = ?    (expected %s)%n", op.expected);
+            } else {
+                System.out.printf("   k = %.2f (expected %s)%n", exponent, op.expected);
+                if (exponent > op.maxExponent) {
+                    failures.add(String.format("%s scales as n^%.2f, expected %s (exponent at most %.1f)",
+                        op, exponent, op.expected, op.maxExponent));
+                }
+            }
+        }
+    }
+
+    /**
+     * Мінімальний час одного виклику кожної операції серед reps повторів.
+     */
+    private Map<Operation, Double> sample(long digits, int reps) throws IOException {
+        String decimal = randomDecimal(digits);
+        NumberListImpl arg = new NumberListImpl(randomDecimal(digits));
+        File source = File.createTempFile("stress", ".txt");
+        File target = File.createTempFile("stress", ".out");
+        try {
+            Files.write(source.toPath(), decimal.getBytes(StandardCharsets.US_ASCII));
+            Map<Operation, Double> best = new EnumMap<>(Operation.class);
+            for (int r = 0; r < reps; r++) {
+                long t0 = System.nanoTime();
+                NumberListImpl list = new NumberListImpl(decimal);
+                long t1 = System.nanoTime();
+                NumberListImpl fromFile = new NumberListImpl(source);
+                long t2 = System.nanoTime();
+                NumberListImpl octal = list.changeScale();
+                long t3 = System.nanoTime();
+                NumberListImpl or = list.additionalOperation(arg);
+                long t4 = System.nanoTime();
+                list.saveList(target);
+                long t5 = System.nanoTime();
+                for (int i = 0; i < SHIFTS_PER_SAMPLE; i++) {
+                    list.shiftLeft();
+                }
+                long t6 = System.nanoTime();
+                for (int i = 0; i < SHIFTS_PER_SAMPLE; i++) {
+                    list.shiftRight();
+                }
+                long t7 = System.nanoTime();
+                list.sortAscending();
+                long t8 = System.nanoTime();
+                list.sortDescending();
+                long t9 = System.nanoTime();
+                Reference.reachabilityFence(fromFile);
+                Reference.reachabilityFence(octal);
+                Reference.reachabilityFence(or);
+
+                best.merge(Operation.FROM_STRING, (double) (t1 - t0), Math::min);
+                best.merge(Operation.FROM_FILE, (double) (t2 - t1), Math::min);
+                best.merge(Operation.CHANGE_SCALE, (double) (t3 - t2), Math::min);
+                best.merge(Operation.ADDITIONAL_OPERATION, (double) (t4 - t3), Math::min);
+                best.merge(Operation.SAVE_LIST, (double) (t5 - t4), Math::min);
+                best.merge(Operation.SHIFT_LEFT, (t6 - t5) / (double) SHIFTS_PER_SAMPLE, Math::min);
+                best.merge(Operation.SHIFT_RIGHT, (t7 - t6) / (double) SHIFTS_PER_SAMPLE, Math::min);
+                best.merge(Operation.SORT_ASCENDING, (double) (t8 - t7), Math::min);
+                best.merge(Operation.SORT_DESCENDING, (double) (t9 - t8), Math::min);
+            }
+            return best;
+        } finally {
+            Files.deleteIfExists(source.toPath());
+            Files.deleteIfExists(target.toPath());
+        }
+    }
+
+    /**
+     * Нахил прямої найменших квадратів для (ln n, ln t) на розмірах від
+     * MIN_FIT_SIZE; NaN, якщо таких розмірів менше трьох.
+     */
+    static double fitExponent(List<Long> sizes, double[] times) {
+        double sx = 0;
+        double sy = 0;
+        double sxx = 0;
+        double sxy = 0;
+        int count = 0;
+        for (int i = 0; i < sizes.size(); i++) {
+            if (sizes.get(i) < MIN_FIT_SIZE || times[i] <= 0) {
+                continue;
+            }
+            double x = Math.log(sizes.get(i));
+            double y = Math.log(times[i]);
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+            count++;
+        }
+        if (count < 3) {
+            return Double.NaN;
+        }
+        return (count * sxy - sx * sy) / (count * sxx - sx * sx);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncApiTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static String randomDecimal(int digits) {
+        Random random = new Random(39);
+        StringBuilder sb = new StringBuilder("1");
+        for (int i = 1; i < digits; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testResultsMatchBlockingCalls() throws Exception {
+        NumberListImpl list = new NumberListImpl(NUMBER);
+        NumberListImpl arg = NumberListImpl.of("123456789", 16);
+
+        assertEquals(list.changeScale(), list.changeScaleAsync(executor).get());
+        assertEquals(list.changeScale(36), list.changeScaleAsync(36, executor, null).get());
+        assertEquals(list.additionalOperation(arg), list.orAsync(arg, executor).get());
+
+        File file = folder.newFile("number.txt");
+        list.saveListAsync(file, executor).get();
+        NumberListImpl loaded = NumberListImpl.loadAsync(file.toPath(), executor).get();
+        assertEquals(new NumberListImpl(file), loaded);
+        assertEquals(NUMBER, loaded.toDecimalString());
+    }
+
+    @Test
+    public void testProgressGrowsToOne() throws Exception {
+        NumberListImpl list = new NumberListImpl(randomDecimal(50_000));
+        List<Double> reported = new CopyOnWriteArrayList<>();
+        NumberListImpl result = list.changeScaleAsync(10, executor, reported::add).get();
+
+        assertEquals(list.toDecimalString(), result.toString());
+        assertTrue(reported.size() > 2);
+        for (int i = 1; i < reported.size(); i++) {
+            assertTrue(reported.get(i) > reported.get(i - 1));
+        }
+        assertEquals(1.0, reported.get(reported.size() - 1), 0.0);
+    }
+
+    @Test
+    public void testCancellationStopsConversion() throws Exception {
+        NumberListImpl list = new NumberListImpl(randomDecimal(200_000));
+        AtomicReference<CompletableFuture<Void>> future = new AtomicReference<>();
+        List<Double> reported = new CopyOnWriteArrayList<>();
+        File file = folder.newFile("cancelled.txt");
+        synchronized (future) {
+            future.set(list.saveListAsync(file, executor, fraction -> {
+                reported.add(fraction);
+                synchronized (future) {
+                    future.get().cancel(true);
+                }
+            }));
+        }
+        // single thread: the next task starts only after the cancelled one stopped
+        assertFalse(executor.submit(() -> Thread.currentThread().isInterrupted()).get());
+        assertTrue(future.get().isCancelled());
+        assertEquals(1, reported.size());
+        assertTrue(reported.get(0) < 1);
+        assertEquals(0, file.length());
+    }
+}
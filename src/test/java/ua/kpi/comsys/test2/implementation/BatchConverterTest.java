@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchConverterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testConvertsDirectory() throws IOException {
+        Path in = folder.newFolder("in").toPath();
+        Path out = folder.newFolder("out").toPath();
+        String[] names = {"1.txt", "14.txt", "227.txt", "BigNumber.txt"};
+        for (String name : names) {
+            Files.copy(new File(FileListTest.PREFIX + name).toPath(), in.resolve(name));
+        }
+        Files.createDirectories(in.resolve("nested"));
+        Files.writeString(in.resolve("nested").resolve("n.txt"), "1212144468782345613");
+
+        BatchConverter.Report report = new BatchConverter(2).run(in, out);
+
+        assertEquals(5, report.getFiles());
+        assertEquals(0, report.getFailed());
+        assertTrue(report.getDigits() > 0);
+        assertTrue(report.getLatencyMillis(99) <= report.getLatencyMillis(100));
+        for (String name : names) {
+            NumberListImpl expected = new NumberListImpl(in.resolve(name).toFile());
+            assertEquals(name, expected.toDecimalString(),
+                Files.readString(out.resolve(name), StandardCharsets.UTF_8));
+        }
+        assertEquals("1212144468782345613",
+            Files.readString(out.resolve("nested").resolve("n.txt"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEmptyDirectory() throws IOException {
+        BatchConverter.Report report = new BatchConverter(1)
+            .run(folder.newFolder("empty").toPath(), folder.newFolder("result").toPath());
+        assertEquals(0, report.getFiles());
+        assertEquals(0.0, report.getLatencyMillis(99), 0.0);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CharSequenceViewTest {
+    static String DECIMAL = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    @Test
+    public void testCharSequenceMatchesToString() {
+        NumberListImpl list = new NumberListImpl(DECIMAL);
+        String expected = list.toString();
+        CharSequence view = list.asCharSequence();
+
+        assertEquals(expected.length(), view.length());
+        for (int i = 0; i < view.length(); i++) {
+            assertEquals(expected.charAt(i), view.charAt(i));
+        }
+        assertEquals(expected, view.toString());
+        assertEquals(expected.substring(3, 17), view.subSequence(3, 17).toString());
+        assertEquals(expected.substring(5, 9), view.subSequence(3, 17).subSequence(2, 6).toString());
+        assertEquals("", view.subSequence(4, 4).toString());
+    }
+
+    @Test
+    public void testViewIsLive() {
+        NumberListImpl list = new NumberListImpl("1");
+        CharSequence view = list.asCharSequence();
+        list.add((byte) 2);
+        assertEquals("12", view.toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCharAtOutOfRange() {
+        new NumberListImpl("14").asCharSequence().charAt(3);
+    }
+
+    @Test
+    public void testAppendTo() throws IOException {
+        NumberListImpl list = NumberListImpl.of(DECIMAL, 36);
+        String expected = list.toString();
+
+        assertEquals(expected, list.appendTo(new StringBuilder()).toString());
+        assertEquals(expected, list.appendTo(new StringWriter()).toString());
+        assertEquals("x" + expected, list.appendTo(new StringBuffer("x")).toString());
+        assertEquals("", new NumberListImpl().appendTo(new StringBuilder()).toString());
+
+        NumberListImpl big = new NumberListImpl(DECIMAL.repeat(500));
+        assertEquals(big.toString(), big.appendTo(new StringWriter()).toString());
+    }
+
+    @Test
+    public void testWriteTo() throws IOException {
+        NumberListImpl list = new NumberListImpl(DECIMAL.repeat(500));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        list.writeTo(out);
+        assertEquals(list.toString(), new String(out.toByteArray(), StandardCharsets.ISO_8859_1));
+    }
+}
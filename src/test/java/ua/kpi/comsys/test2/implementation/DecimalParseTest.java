@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DecimalParseTest {
+
+    private static String ternary(NumberListImpl list) {
+        StringBuilder sb = new StringBuilder();
+        for (byte digit : list) {
+            sb.append(digit);
+        }
+        return sb.toString();
+    }
+
+    private static String randomDigits(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        sb.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < length; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    private static void assertParsed(String value) {
+        NumberListImpl list = new NumberListImpl(value);
+        BigInteger expected = new BigInteger(value);
+        assertEquals(value.length() + " digits", expected.toString(3), ternary(list));
+        assertEquals(value.length() + " digits", expected.toString(), list.toDecimalString());
+    }
+
+    @Test
+    public void testChunkBoundaries() {
+        Random random = new Random(30);
+        for (int length : new int[] {1, 17, 18, 19, 35, 36, 37, 360, 361}) {
+            assertParsed(randomDigits(random, length));
+            assertParsed("9999999999999999999999999999999999999".substring(0, Math.min(length, 37)));
+        }
+    }
+
+    @Test
+    public void testLeadingZeros() {
+        assertEquals("1202", ternary(new NumberListImpl("00000000000000000000047")));
+        assertEquals("47", new NumberListImpl("000000000000000000047").toDecimalString());
+        assertEquals("0", ternary(new NumberListImpl("0000000000000000000000000000000000000")));
+    }
+
+    @Test
+    public void testZero() {
+        NumberListImpl list = new NumberListImpl("0");
+        assertEquals(1, list.size());
+        assertEquals("0", ternary(list));
+        assertEquals("0", list.toDecimalString());
+    }
+
+    @Test
+    public void testLargeRandomRoundTrip() {
+        assertParsed(randomDigits(new Random(3030), 20000));
+    }
+
+    @Test
+    public void testOnlyAsciiDigits() {
+        // BigInteger приймає будь-які цифри Unicode, список — лише '0'..'9'
+        String arabicIndic = "\u0661\u0662\u0663";
+        assertEquals(BigInteger.valueOf(123), new BigInteger(arabicIndic));
+        assertNull(Radix.parseDecimal(arabicIndic));
+        assertNull(Radix.parseDecimal("12\uFF13"));
+        assertTrue(new NumberListImpl(arabicIndic).isEmpty());
+        assertTrue(new NumberListImpl("1\u0662").isEmpty());
+
+        assertArrayEquals(new byte[] {0, 0, 9, 1}, Radix.parseDecimal("0091"));
+        assertNull(Radix.parseDecimal(""));
+    }
+}
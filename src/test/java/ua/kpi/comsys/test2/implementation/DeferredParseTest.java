@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeferredParseTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPassThroughKeepsText() throws IOException {
+        NumberListImpl list = NumberListImpl.deferred(" +000" + NUMBER + " ");
+        assertEquals("deferred", list.storeName());
+        assertEquals(NUMBER, list.toDecimalString());
+
+        File file = folder.newFile("out.txt");
+        list.saveList(file);
+        assertEquals(NUMBER, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+
+        NumberListImpl other = NumberListImpl.deferred("123456789");
+        NumberListImpl or = list.additionalOperation(other);
+        assertEquals("deferred", or.storeName());
+        assertEquals(new NumberListImpl(NUMBER).additionalOperation(new NumberListImpl("123456789")), or);
+        assertEquals("linked", or.storeName());
+
+        assertEquals(new NumberListImpl(NUMBER).changeScale(), list.changeScale());
+        assertEquals("deferred", list.storeName());
+        assertEquals("deferred", other.storeName());
+    }
+
+    @Test
+    public void testDigitsAreProducedOnFirstAccess() {
+        for (Storage storage : Storage.values()) {
+            NumberListImpl eager = NumberListImpl.of(NUMBER, 3, storage);
+            NumberListImpl list = NumberListImpl.deferred(NUMBER, 3, storage);
+            assertEquals(eager.size(), list.size());
+            assertEquals(storage.name(), eager, list);
+            assertEquals(eager.hashCode(), list.hashCode());
+
+            list.add((byte) 2);
+            eager.add((byte) 2);
+            assertEquals(eager.toDecimalString(), list.toDecimalString());
+            assertTrue(!"deferred".equals(list.storeName()));
+            list.close();
+            eager.close();
+        }
+    }
+
+    @Test
+    public void testSameRulesAsEagerParsing() {
+        for (String value : new String[] {"", "  ", "-5", "12a", "+", " +000 ", "0", "+42"}) {
+            NumberListImpl eager = new NumberListImpl(value);
+            NumberListImpl list = NumberListImpl.deferred(value);
+            assertEquals("'" + value + "'", eager.toDecimalString(), list.toDecimalString());
+            assertEquals("'" + value + "'", eager, list);
+        }
+        NumberListImpl list = NumberListImpl.deferred(NUMBER);
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testLargeConversionMatchesEager() {
+        Random random = new Random(48);
+        StringBuilder text = new StringBuilder("9");
+        for (int i = 1; i < 100000; i++) {
+            text.append((char) ('0' + random.nextInt(10)));
+        }
+        String value = text.toString();
+        NumberListImpl eager = new NumberListImpl(value);
+        NumberListImpl list = NumberListImpl.deferred(value);
+        assertEquals(eager.changeScale(), list.changeScale());
+        assertEquals("deferred", list.storeName());
+        StringBuilder ternary = new StringBuilder();
+        for (byte digit : list.changeScale(3)) {
+            ternary.append(digit);
+        }
+        assertEquals(new BigInteger(value).toString(3), ternary.toString());
+        assertEquals(eager.additionalOperation(eager), list.additionalOperation(list));
+    }
+
+    @Test
+    public void testAsyncOperationDoesNotParseOnCallerThread() throws Exception {
+        List<Runnable> queued = new ArrayList<>();
+        NumberListImpl list = NumberListImpl.deferred(NUMBER);
+        NumberListImpl other = NumberListImpl.deferred("123456789");
+        CompletableFuture<NumberListImpl> or = list.orAsync(other, queued::add);
+        assertEquals("deferred", list.storeName());
+        assertEquals("deferred", other.storeName());
+
+        queued.forEach(Runnable::run);
+        assertEquals(new NumberListImpl(NUMBER).additionalOperation(new NumberListImpl("123456789")), or.get());
+    }
+
+    @Test
+    public void testFromFile() throws IOException {
+        File file = folder.newFile("in.txt");
+        Files.write(file.toPath(), ("\n" + NUMBER + "\n").getBytes(StandardCharsets.UTF_8));
+        NumberListImpl list = NumberListImpl.deferred(file);
+        assertEquals("deferred", list.storeName());
+        assertEquals(NUMBER, list.toDecimalString());
+        assertEquals(new NumberListImpl(file), list);
+        assertEquals(new NumberListImpl(new File(folder.getRoot(), "missing.txt")),
+            NumberListImpl.deferred(new File(folder.getRoot(), "missing.txt")));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class DigitKernelsTest {
+
+    private static final DigitKernels SCALAR = new ScalarKernels();
+    private static final DigitKernels VECTOR = new VectorKernels();
+
+    private static byte[] randomDigits(Random random, int length, int base) {
+        byte[] digits = new byte[length];
+        for (int i = 0; i < length; i++) {
+            digits[i] = (byte) random.nextInt(base);
+        }
+        return digits;
+    }
+
+    @Test
+    public void testVectorKernelsMatchScalar() {
+        Random random = new Random(40);
+        for (int base : new int[] {2, 3, 8, 10, 16, 36}) {
+            for (int length : new int[] {0, 1, 15, 64, 65, 1000}) {
+                byte[] a = randomDigits(random, length, base);
+                byte[] b = randomDigits(random, length, base);
+                int from = length > 3 ? 3 : 0;
+
+                assertEquals(-1, VECTOR.firstInvalid(a, 0, length, base));
+                if (length > 0) {
+                    int bad = random.nextInt(length);
+                    byte[] invalid = a.clone();
+                    invalid[bad] = (byte) (random.nextBoolean() ? base : -1);
+                    assertEquals(SCALAR.firstInvalid(invalid, from, length, base),
+                        VECTOR.firstInvalid(invalid, from, length, base));
+                }
+
+                int[] expected = new int[base];
+                int[] actual = new int[base];
+                SCALAR.histogram(a, from, length, expected);
+                VECTOR.histogram(a, from, length, actual);
+                assertArrayEquals(expected, actual);
+
+                byte[] expectedAscii = new byte[length + 2];
+                byte[] actualAscii = new byte[length + 2];
+                SCALAR.toAscii(a, from, length, expectedAscii, 2);
+                VECTOR.toAscii(a, from, length, actualAscii, 2);
+                assertArrayEquals(expectedAscii, actualAscii);
+
+                byte[] x = a.clone();
+                byte[] y = a.clone();
+                SCALAR.or(x, 0, b, 0, length);
+                VECTOR.or(y, 0, b, 0, length);
+                assertArrayEquals(x, y);
+                SCALAR.or(x, from, b, 0, length - from);
+                VECTOR.or(y, from, b, 0, length - from);
+                assertArrayEquals(x, y);
+            }
+        }
+    }
+
+    @Test
+    public void testListOperationsUseKernels() {
+        NumberListImpl list = NumberListImpl.of("98765432109876543210987654321098765432109876543210", 36);
+        String digits = list.toString();
+        list.sortAscending();
+        char[] sorted = digits.toCharArray();
+        Arrays.sort(sorted);
+        assertEquals(new String(sorted), list.toString());
+        list.sortDescending();
+        assertEquals(new StringBuilder(new String(sorted)).reverse().toString(), list.toString());
+
+        try {
+            list.addAll(Arrays.asList((byte) 1, (byte) 36));
+            fail("Digit 36 is out of range for base 36");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(digits.length(), list.size());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MappedNumberListTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadsDigitsOfFile() throws IOException {
+        Path file = folder.newFile("number.txt").toPath();
+        Files.write(file, (NUMBER + "\n").getBytes(StandardCharsets.US_ASCII));
+        try (MappedNumberList list = MappedNumberList.open(file, 10, false)) {
+            assertEquals(NUMBER.length(), list.size());
+            assertEquals(Byte.valueOf((byte) 7), list.get(0));
+            assertEquals(4, list.indexOf((byte) 3));
+            assertEquals(NumberListImpl.of(NUMBER, 10).subList(5, 15), list.subList(5, 15));
+            assertEquals(NUMBER, list.toDecimalString());
+            assertEquals(NumberListImpl.of(NUMBER, 10), list.toNumberList());
+        }
+    }
+
+    @Test
+    public void testWritesGoThroughMapping() throws IOException {
+        Path file = folder.newFile("octal.txt").toPath();
+        NumberListImpl octal = new NumberListImpl(NUMBER).changeScale();
+        try (MappedNumberList list = MappedNumberList.create(file, octal)) {
+            assertEquals(octal, list);
+            list.set(0, (byte) 1);
+            list.shiftLeft();
+            list.shiftRight();
+            list.force();
+        }
+        octal.set(0, (byte) 1);
+        assertEquals(octal.toString(), new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+
+        try (MappedNumberList list = MappedNumberList.open(file, 8, true)) {
+            list.sortDescending();
+            octal.sortDescending();
+            assertEquals(octal, list);
+            list.sortAscending();
+            octal.sortAscending();
+            assertEquals(octal, list);
+        }
+    }
+
+    @Test
+    public void testSizeIsFixed() throws IOException {
+        Path file = folder.newFile("fixed.txt").toPath();
+        Files.write(file, "1201".getBytes(StandardCharsets.US_ASCII));
+        try (MappedNumberList list = MappedNumberList.open(file, 3, true)) {
+            try {
+                list.add((byte) 1);
+                fail("Mapped list must not grow");
+            } catch (UnsupportedOperationException expected) {
+                // size is defined by the file
+            }
+            try {
+                list.remove(0);
+                fail("Mapped list must not shrink");
+            } catch (UnsupportedOperationException expected) {
+                // size is defined by the file
+            }
+        }
+    }
+
+    @Test
+    public void testReadOnlyAndInvalidDigits() throws IOException {
+        Path file = folder.newFile("invalid.txt").toPath();
+        Files.write(file, "1291".getBytes(StandardCharsets.US_ASCII));
+        try (MappedNumberList list = MappedNumberList.open(file, 3, false)) {
+            assertEquals(Byte.valueOf((byte) 2), list.get(1));
+            try {
+                list.get(2);
+                fail("Digit 9 is not valid in base 3");
+            } catch (IllegalStateException expected) {
+                // checked on access
+            }
+            try {
+                list.set(0, (byte) 0);
+                fail("Read-only mapping must not be changed");
+            } catch (UnsupportedOperationException expected) {
+                // opened read-only
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NodeArenaTest {
+
+    @Test
+    public void testClearKeepsAndReusesCapacity() {
+        NumberListImpl list = new NumberListImpl("79483758967495604375647803561675463655464562565464565654634156134636");
+        int capacity = list.nodeCount();
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(capacity, list.nodeCount());
+
+        for (int i = 0; i < capacity; i++) {
+            list.add((byte) (i % 3));
+        }
+        assertEquals(capacity, list.nodeCount());
+        assertEquals(capacity, list.size());
+    }
+
+    @Test
+    public void testTrimToSize() {
+        NumberListImpl list = new NumberListImpl("79483758967495604375647803561675463655464562565464565654634156134636");
+        String digits = list.toString();
+        list.add(0, (byte) 1);
+        list.remove(0);
+        for (int i = 0; i < 1000; i++) {
+            list.add((byte) 2);
+        }
+        for (int i = 0; i < 1000; i++) {
+            list.remove(list.size() - 1);
+        }
+        list.trimToSize();
+        assertTrue(list.nodeCount() < 1000);
+        assertEquals(digits, list.toString());
+        assertEquals(new NumberListImpl("79483758967495604375647803561675463655464562565464565654634156134636"), list);
+
+        list.clear();
+        list.trimToSize();
+        assertTrue(list.isEmpty());
+        list.add((byte) 1);
+        assertEquals("1", list.toString());
+    }
+
+    @Test
+    public void testRandomOperationsMatchArrayList() {
+        Random random = new Random(6);
+        NumberListImpl list = new NumberListImpl();
+        List<Byte> model = new ArrayList<>();
+        for (int step = 0; step < 20_000; step++) {
+            byte digit = (byte) random.nextInt(3);
+            int op = random.nextInt(12);
+            if (op < 3 || model.isEmpty()) {
+                list.add(digit);
+                model.add(digit);
+            } else if (op == 3) {
+                int index = random.nextInt(model.size() + 1);
+                list.add(index, digit);
+                model.add(index, digit);
+            } else if (op == 4) {
+                int index = random.nextInt(model.size());
+                assertEquals(model.remove(index), list.remove(index));
+            } else if (op == 5) {
+                int index = random.nextInt(model.size());
+                assertEquals(model.set(index, digit), list.set(index, digit));
+            } else if (op == 6) {
+                list.shiftLeft();
+                Collections.rotate(model, -1);
+            } else if (op == 7) {
+                list.shiftRight();
+                Collections.rotate(model, 1);
+            } else if (op == 8) {
+                assertEquals(model.remove(Byte.valueOf(digit)), list.remove(Byte.valueOf(digit)));
+            } else if (op == 9) {
+                Iterator<Byte> it = list.iterator();
+                Iterator<Byte> modelIt = model.iterator();
+                while (it.hasNext()) {
+                    assertEquals(modelIt.next(), it.next());
+                    if (random.nextInt(50) == 0) {
+                        it.remove();
+                        modelIt.remove();
+                    }
+                }
+            } else if (op == 10) {
+                int index = random.nextInt(model.size() + 1);
+                ListIterator<Byte> it = list.listIterator(index);
+                ListIterator<Byte> modelIt = model.listIterator(index);
+                if (it.hasPrevious()) {
+                    assertEquals(modelIt.previous(), it.previous());
+                    it.set(digit);
+                    modelIt.set(digit);
+                }
+                it.add(digit);
+                modelIt.add(digit);
+            } else if (random.nextInt(20) == 0) {
+                list.trimToSize();
+            } else {
+                int index = random.nextInt(model.size());
+                assertEquals(model.get(index), list.get(index));
+            }
+            assertEquals(model.size(), list.size());
+        }
+        assertEquals(model, list);
+        assertEquals(model.hashCode(), list.hashCode());
+    }
+}
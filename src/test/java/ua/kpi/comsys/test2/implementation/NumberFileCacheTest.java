@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberFileCacheTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String name, String content) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    public void testRepeatedLoadsAreHits() throws IOException {
+        File file = write("n.txt", NUMBER + "\n");
+        NumberFileCache cache = new NumberFileCache(1000);
+        NumberListImpl first = cache.load(file);
+        assertEquals(new NumberListImpl(file), first);
+        assertEquals(10, first.getBase());
+        for (int i = 0; i < 9; i++) {
+            NumberListImpl list = cache.load(new File(folder.getRoot(), "./n.txt"));
+            assertEquals("shared", list.storeName());
+            assertEquals(NUMBER, list.toDecimalString());
+            assertEquals("shared", list.storeName());
+        }
+        assertEquals(9, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.9, cache.getHitRate(), 1e-9);
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(NUMBER.length(), cache.getDigits());
+
+        NumberListImpl ternary = cache.load(file, 3, Storage.PACKED);
+        assertEquals(new NumberListImpl(NUMBER), ternary);
+        assertEquals(NUMBER, ternary.toDecimalString());
+        assertEquals(2, cache.getEntryCount());
+    }
+
+    @Test
+    public void testLoadedListsAreCopyOnWrite() throws IOException {
+        File file = write("n.txt", NUMBER);
+        NumberFileCache cache = new NumberFileCache(1000);
+        NumberListImpl a = cache.load(file, 3, Storage.TREE);
+        NumberListImpl b = cache.load(file, 3, Storage.LINKED);
+        NumberListImpl expected = new NumberListImpl(NUMBER);
+
+        a.set(0, (byte) 0);
+        a.add((byte) 1);
+        a.sortAscending();
+        assertEquals("tree", a.storeName());
+        assertEquals(expected, b);
+        assertEquals(expected, cache.load(file, 3, Storage.LINKED));
+
+        b.clear();
+        assertTrue(b.isEmpty());
+        assertEquals(expected, cache.load(file, 3, Storage.LINKED));
+    }
+
+    @Test
+    public void testChangedFileIsReadAgain() throws IOException {
+        File file = write("n.txt", "12345");
+        NumberFileCache cache = new NumberFileCache(1000);
+        assertEquals("12345", cache.load(file).toDecimalString());
+        write("n.txt", "123456789");
+        assertEquals("123456789", cache.load(file).toDecimalString());
+        assertEquals(2, cache.getMissCount());
+
+        assertTrue(cache.load(new File(folder.getRoot(), "missing.txt")).isEmpty());
+        assertEquals(new NumberListImpl(write("negative.txt", "-5")), cache.load(new File(folder.getRoot(), "negative.txt")));
+        assertEquals(new NumberListImpl(write("blank.txt", "  \n")), cache.load(new File(folder.getRoot(), "blank.txt")));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws IOException {
+        NumberFileCache cache = new NumberFileCache(25);
+        File a = write("a.txt", "1111111111");
+        File b = write("b.txt", "2222222222");
+        File c = write("c.txt", "3333333333");
+        cache.load(a);
+        cache.load(b);
+        cache.load(a);
+        cache.load(c);
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(20, cache.getDigits());
+
+        cache.load(a);
+        cache.load(c);
+        assertEquals(3, cache.getHitCount());
+        cache.load(b);
+        assertEquals(4, cache.getMissCount());
+
+        cache.load(write("big.txt", NUMBER));
+        assertEquals("Files bigger than the cache are not kept", 20, cache.getDigits());
+        cache.clear();
+        assertEquals(0, cache.getEntryCount());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberFileReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReportsInvalidLinesAndGoesOn() throws IOException {
+        Path file = folder.newFile("numbers.txt").toPath();
+        Files.write(file, "123\r\n\n  +45 \n-7\n12a4\n+\n0\n98765432109876543210".getBytes(StandardCharsets.US_ASCII));
+        Queue<NumberFileReader.LineError> errors = new ConcurrentLinkedQueue<>();
+        try (NumberFileReader reader = NumberFileReader.open(file)) {
+            List<NumberListImpl> lists = reader.stream(errors::add).collect(Collectors.toList());
+            assertEquals(4, lists.size());
+            assertEquals(new NumberListImpl("123"), lists.get(0));
+            assertEquals(new NumberListImpl("45"), lists.get(1));
+            assertEquals(new NumberListImpl("0"), lists.get(2));
+            assertEquals("98765432109876543210", lists.get(3).toDecimalString());
+            assertEquals(3, lists.get(0).getBase());
+
+            assertEquals(3, errors.size());
+            assertEquals(3, reader.getErrorCount());
+            List<Long> lines = new ArrayList<>();
+            for (NumberFileReader.LineError error : errors) {
+                lines.add(reader.lineNumber(error.getOffset()));
+            }
+            assertEquals(List.of(4L, 5L, 6L), lines);
+            assertEquals("12a4", new ArrayList<>(errors).get(1).getText());
+        }
+    }
+
+    /**
+     * Reads the same lines many times, so the parser is compiled by the
+     * optimizing JIT while the stream runs on all cores.
+     */
+    @Test
+    public void testRepeatedReadsOfMixedLines() throws IOException {
+        Random random = new Random(440);
+        StringBuilder text = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        int bad = 0;
+        for (int i = 0; i < 100000; i++) {
+            String number = Long.toString(random.nextLong() & Long.MAX_VALUE);
+            switch (i % 6) {
+                case 0:
+                    text.append("  ").append(number).append(" \t\n");
+                    expected.add(number);
+                    break;
+                case 1:
+                    text.append('+').append(number).append("\r\n");
+                    expected.add(number);
+                    break;
+                case 2:
+                    text.append('-').append(number).append('\n');
+                    bad++;
+                    break;
+                case 3:
+                    text.append(number, 0, 5).append('x').append('\n');
+                    bad++;
+                    break;
+                case 4:
+                    text.append(" \n");
+                    break;
+                default:
+                    text.append(number).append('\n');
+                    expected.add(number);
+                    break;
+            }
+        }
+        Path file = folder.newFile("mixed.txt").toPath();
+        Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+        try (NumberFileReader reader = NumberFileReader.open(file, 10, Storage.PACKED)) {
+            for (int round = 0; round < 30; round++) {
+                List<String> decimals = reader.stream()
+                    .map(NumberListImpl::toDecimalString)
+                    .collect(Collectors.toList());
+                assertEquals(expected, decimals);
+            }
+            assertEquals(30L * bad, reader.getErrorCount());
+        }
+    }
+
+    @Test
+    public void testParallelStreamKeepsOrder() throws IOException {
+        Random random = new Random(44);
+        StringBuilder text = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            if (i % 1000 == 999) {
+                text.append("bad").append(i).append('\n');
+                continue;
+            }
+            String number = new BigInteger(10 + random.nextInt(120), random).toString();
+            expected.add(number);
+            text.append(number).append('\n');
+        }
+        Path file = folder.newFile("many.txt").toPath();
+        Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+        try (NumberFileReader reader = NumberFileReader.open(file, 8, Storage.PACKED)) {
+            List<String> decimals = reader.stream()
+                .map(NumberListImpl::toDecimalString)
+                .collect(Collectors.toList());
+            assertEquals(expected, decimals);
+            assertEquals(30, reader.getErrorCount());
+            assertTrue(reader.stream().isParallel());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NumberListCodecTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    private static byte[] encode(NumberListImpl list) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NumberListCodec.write(list, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static NumberListImpl decode(byte[] bytes) throws IOException {
+        return NumberListCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testRoundTripInEveryBase() throws IOException {
+        for (int base = 2; base <= 36; base++) {
+            NumberListImpl list = NumberListImpl.of(NUMBER, base);
+            byte[] bytes = encode(list);
+            assertEquals(NumberListCodec.encodedSize(list), bytes.length);
+            NumberListImpl copy = decode(bytes);
+            assertEquals(base, copy.getBase());
+            assertEquals(list, copy);
+            assertEquals(NUMBER, copy.toDecimalString());
+        }
+        NumberListImpl empty = NumberListImpl.empty(8, Storage.LINKED);
+        assertEquals(empty, decode(encode(empty)));
+    }
+
+    @Test
+    public void testDigitsArePacked() throws IOException {
+        NumberListImpl ternary = NumberListImpl.of(NUMBER, 3);
+        assertEquals(2, NumberListCodec.bitsPerDigit(3));
+        assertEquals(3, NumberListCodec.bitsPerDigit(8));
+        assertEquals(6, NumberListCodec.bitsPerDigit(36));
+        assertEquals(1 + NumberListCodec.varintSize(ternary.size()) + (ternary.size() * 2 + 7) / 8,
+            encode(ternary).length);
+
+        NumberListImpl list = NumberListImpl.empty(3, Storage.LINKED);
+        list.add((byte) 0);
+        list.add((byte) 2);
+        list.add((byte) 1);
+        // 00 10 01 + два біти доповнення
+        byte[] bytes = encode(list);
+        assertEquals(3, bytes[0]);
+        assertEquals(3, bytes[1]);
+        assertEquals(0b00100100, bytes[2]);
+        assertEquals(list, decode(bytes));
+    }
+
+    @Test
+    public void testExternalizable() throws IOException, ClassNotFoundException {
+        NumberListImpl list = NumberListImpl.of(NUMBER, 8);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(list);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            NumberListImpl copy = (NumberListImpl) in.readObject();
+            assertEquals(8, copy.getBase());
+            assertEquals(list, copy);
+            assertEquals(list.changeScale(3), copy.changeScale(3));
+        }
+    }
+
+    @Test
+    public void testFrames() throws IOException {
+        List<NumberListImpl> lists = new ArrayList<>();
+        lists.add(NumberListImpl.of(NUMBER, 3));
+        lists.add(NumberListImpl.of(NUMBER, 8));
+        lists.add(NumberListImpl.of("0", 10));
+        lists.add(NumberListImpl.of(NUMBER + NUMBER + NUMBER, 2));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NumberListCodec.FrameWriter writer = new NumberListCodec.FrameWriter(new DataOutputStream(bytes));
+        for (NumberListImpl list : lists) {
+            writer.write(list);
+        }
+        assertEquals(lists.size(), writer.getFrameCount());
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (NumberListImpl list : lists) {
+            assertEquals(list, NumberListCodec.readFrame(in));
+        }
+        assertNull(NumberListCodec.readFrame(in));
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        NumberListCodec.FrameReader reader = new NumberListCodec.FrameReader(buffer, Storage.PACKED);
+        List<NumberListImpl> read = new ArrayList<>();
+        reader.forEachRemaining(read::add);
+        assertEquals(lists, read);
+        assertEquals(Storage.PACKED, read.get(0).getStorage());
+        assertFalse(buffer.hasRemaining());
+
+        ByteBuffer cut = ByteBuffer.wrap(bytes.toByteArray(), 0, bytes.size() - 1);
+        reader = new NumberListCodec.FrameReader(cut);
+        for (int i = 0; i < lists.size() - 1; i++) {
+            assertTrue(reader.hasNext());
+            assertEquals(lists.get(i), reader.next());
+        }
+        assertFalse("Incomplete frame must wait for more bytes", reader.hasNext());
+    }
+
+    @Test
+    public void testRejectsInvalidDigits() throws IOException {
+        try {
+            decode(new byte[] {3, 2, (byte) 0b11000000});
+            fail("Digit 3 is not valid in base 3");
+        } catch (StreamCorruptedException expected) {
+            // 2 bits can hold digits up to 3
+        }
+        try {
+            decode(new byte[] {1, 0});
+            fail("Base 1 is not valid");
+        } catch (StreamCorruptedException expected) {
+            // base is checked before digits
+        }
+        try {
+            new NumberListCodec.FrameReader(ByteBuffer.wrap(new byte[] {2, 3, 5})).next();
+            fail("Frame is shorter than its number");
+        } catch (IllegalArgumentException expected) {
+            // 5 ternary digits need two more bytes
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidFrameLength() {
+        byte[] overlong = new byte[11];
+        Arrays.fill(overlong, (byte) 0x80);
+        byte[] outOfRange = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        for (byte[] bytes : new byte[][] {overlong, outOfRange}) {
+            NumberListCodec.FrameReader reader = new NumberListCodec.FrameReader(ByteBuffer.wrap(bytes));
+            try {
+                reader.hasNext();
+                fail("Frame length must not be taken for the end of frames");
+            } catch (IllegalArgumentException expected) {
+                // corrupt length is not a clean end of frames
+            }
+        }
+
+        byte[] truncated = {(byte) 0x80, (byte) 0x80};
+        assertFalse("Length cut by the limit must wait for more bytes",
+            new NumberListCodec.FrameReader(ByteBuffer.wrap(truncated)).hasNext());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberListEventsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEventsAreRecorded() throws IOException {
+        File saved = folder.newFile("number.txt");
+        Path dump = folder.newFile("recording.jfr").toPath();
+        String decimal = "1212144468782345613";
+
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"Parse", "RadixConversion", "BitwiseOperation", "Save", "Load"}) {
+                recording.enable(NumberListEvents.PREFIX + name).withoutThreshold();
+            }
+            recording.start();
+
+            NumberListImpl list = new NumberListImpl(decimal);
+            list.changeScale();
+            list.additionalOperation(new NumberListImpl("2"));
+            list.saveList(saved);
+            new NumberListImpl(saved);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+            .filter(e -> e.getEventType().getName().startsWith(NumberListEvents.PREFIX))
+            .collect(Collectors.toList());
+
+        RecordedEvent parse = find(events, "Parse");
+        assertEquals(10, parse.getInt("sourceBase"));
+        assertEquals(3, parse.getInt("targetBase"));
+        assertEquals(decimal.length(), parse.getLong("digits"));
+        assertEquals("simple", parse.getString("algorithm"));
+
+        RecordedEvent conversion = find(events, "RadixConversion");
+        assertEquals(3, conversion.getInt("sourceBase"));
+        assertEquals(8, conversion.getInt("targetBase"));
+
+        assertEquals("OR", find(events, "BitwiseOperation").getString("operation"));
+        assertEquals(decimal.length(), find(events, "Save").getLong("bytes"));
+        assertEquals(decimal.length(), find(events, "Load").getLong("bytes"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> found = events.stream()
+            .filter(e -> e.getEventType().getName().equals(NumberListEvents.PREFIX + name))
+            .collect(Collectors.toList());
+        assertTrue("No " + name + " event", !found.isEmpty());
+        return found.get(0);
+    }
+}
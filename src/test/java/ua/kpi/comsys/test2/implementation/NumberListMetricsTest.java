@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListMetrics.Op;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberListMetricsTest {
+
+    @Test
+    public void testRecordsCallsDigitsAndHistogram() {
+        NumberListMetrics metrics = new NumberListMetrics();
+        metrics.add(Op.CHANGE_SCALE, 40, 1_500);
+        metrics.add(Op.CHANGE_SCALE, 2, 1_100);
+
+        assertEquals(Long.valueOf(2), metrics.getCallCounts().get("CHANGE_SCALE"));
+        assertEquals(Long.valueOf(42), metrics.getDigitsProcessed().get("CHANGE_SCALE"));
+        assertEquals(Long.valueOf(0), metrics.getCallCounts().get("SAVE_LIST"));
+        assertEquals(2, metrics.getLatencyHistograms().get("CHANGE_SCALE")[10]);
+
+        metrics.reset();
+        assertEquals(Long.valueOf(0), metrics.getCallCounts().get("CHANGE_SCALE"));
+    }
+
+    @Test
+    public void testBuckets() {
+        assertEquals(0, NumberListMetrics.bucket(0));
+        assertEquals(0, NumberListMetrics.bucket(1));
+        assertEquals(10, NumberListMetrics.bucket(1024));
+        assertEquals(62, NumberListMetrics.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testGauges() {
+        NumberListMetrics metrics = new NumberListMetrics();
+        NumberListImpl list = new NumberListImpl("1212144468782345613");
+        metrics.addList(list);
+        metrics.addList(new NumberListImpl("14"));
+
+        assertEquals(2, metrics.getLiveLists());
+        assertEquals(list.size() + 3, metrics.getTotalDigits());
+        assertTrue(metrics.getTotalNodes() >= metrics.getTotalDigits());
+    }
+
+    @Test
+    public void testCollectedListsAreForgotten() throws InterruptedException {
+        NumberListMetrics metrics = new NumberListMetrics();
+        for (int round = 0; round < 50 && (round == 0 || metrics.trackedLists() > 100); round++) {
+            for (int i = 0; i < 1000; i++) {
+                metrics.addList(new NumberListImpl("14"));
+            }
+            System.gc();
+            Thread.sleep(10);
+            metrics.addList(new NumberListImpl("14"));
+        }
+        assertTrue(metrics.trackedLists() <= 100);
+    }
+
+    @Test
+    public void testPublishedWhenEnabled() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java,
+            "-D" + NumberListMetrics.PROPERTY + "=true",
+            "-cp", System.getProperty("java.class.path"),
+            NumberListMetricsTest.class.getName())
+            .inheritIO()
+            .start();
+        assertEquals("Metrics were not published", 0, process.waitFor());
+    }
+
+    /**
+     * Runs in a separate JVM with metrics enabled.
+     */
+    public static void main(String[] args) throws Exception {
+        NumberListImpl list = new NumberListImpl("1212144468782345613");
+        list.changeScale();
+        list.get(3);
+
+        NumberListMetricsMXBean bean = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+            new ObjectName(NumberListMetrics.OBJECT_NAME), NumberListMetricsMXBean.class);
+        Map<String, Long> calls = bean.getCallCounts();
+        boolean ok = calls.get("FROM_STRING") == 1
+            && calls.get("CHANGE_SCALE") == 1
+            && calls.get("POSITIONAL_ACCESS") == 1
+            && bean.getDigitsProcessed().get("CHANGE_SCALE") == list.size()
+            && bean.getTotalDigits() >= list.size();
+        System.exit(ok ? 0 : 1);
+    }
+}
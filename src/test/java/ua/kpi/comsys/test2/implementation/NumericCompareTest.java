@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumericCompareTest {
+
+    @Test
+    public void testEqualsSameDigits() {
+        NumberListImpl list1 = new NumberListImpl("1212144468782345613");
+        NumberListImpl list2 = new NumberListImpl("1212144468782345613");
+
+        assertEquals(list1, list2);
+        assertEquals(list1.hashCode(), list2.hashCode());
+
+        list2.set(0, (byte) 1);
+        assertNotEquals(list1, list2);
+    }
+
+    @Test
+    public void testHashCodeFollowsListContract() {
+        NumberListImpl list = new NumberListImpl("227");
+        assertEquals(new java.util.ArrayList<>(list).hashCode(), list.hashCode());
+
+        list.add((byte) 2);
+        assertEquals(new java.util.ArrayList<>(list).hashCode(), list.hashCode());
+    }
+
+    @Test
+    public void testNumericEqualsAcrossScales() {
+        NumberListImpl ternary = new NumberListImpl("1212144468782345613");
+        NumberListImpl octal = ternary.changeScale();
+
+        assertNotEquals(ternary, octal);
+        assertTrue(ternary.numericEquals(octal));
+        assertTrue(octal.numericEquals(ternary));
+        assertEquals(0, ternary.compareTo(octal));
+
+        NumberListImpl other = new NumberListImpl("1212144468782345614").changeScale();
+        assertFalse(ternary.numericEquals(other));
+        assertTrue(ternary.compareTo(other) < 0);
+        assertTrue(other.compareTo(ternary) > 0);
+    }
+
+    @Test
+    public void testCompareByMagnitude() {
+        NumberListImpl small = new NumberListImpl("15");
+        NumberListImpl big = new NumberListImpl("79483758967495604375647803561675463655464562565464565654634156134636")
+            .changeScale();
+
+        assertTrue(small.compareTo(big) < 0);
+        assertTrue(big.compareTo(small) > 0);
+        assertFalse(small.numericEquals(big));
+    }
+
+    @Test
+    public void testLeadingZerosAndZero() {
+        NumberListImpl zero = new NumberListImpl("0");
+        NumberListImpl padded = new NumberListImpl();
+        padded.add((byte) 0);
+        padded.add((byte) 0);
+
+        assertTrue(zero.numericEquals(padded));
+        assertTrue(zero.numericEquals(zero.changeScale()));
+        assertEquals(0, padded.compareTo(new NumberListImpl()));
+
+        padded.add((byte) 2);
+        assertTrue(padded.numericEquals(new NumberListImpl("2").changeScale()));
+        assertTrue(padded.compareTo(zero) > 0);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OffHeapStorageTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    @Test
+    public void testSameDigitsAsLinkedList() {
+        try (NumberListImpl offHeap = NumberListImpl.of(NUMBER, 3, Storage.OFF_HEAP)) {
+            NumberListImpl linked = NumberListImpl.of(NUMBER, 3);
+            assertSame(Storage.OFF_HEAP, offHeap.getStorage());
+            assertSame(Storage.LINKED, linked.getStorage());
+            assertEquals(linked, offHeap);
+            assertEquals(linked.hashCode(), offHeap.hashCode());
+            assertEquals(linked.toString(), offHeap.toString());
+            assertEquals(NUMBER, offHeap.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testResultsKeepStorage() {
+        try (NumberListImpl a = NumberListImpl.of(NUMBER, 3, Storage.OFF_HEAP);
+             NumberListImpl b = NumberListImpl.of("123456789", 8, Storage.OFF_HEAP);
+             NumberListImpl octal = a.changeScale();
+             NumberListImpl hex = b.changeScale(16);
+             NumberListImpl or = a.additionalOperation(b)) {
+            assertSame(Storage.OFF_HEAP, octal.getStorage());
+            assertSame(Storage.OFF_HEAP, hex.getStorage());
+            assertSame(Storage.OFF_HEAP, or.getStorage());
+            assertEquals(new NumberListImpl(NUMBER).changeScale(), octal);
+            assertEquals("75BCD15", hex.toString());
+            assertEquals(new NumberListImpl(NUMBER).additionalOperation(NumberListImpl.of("123456789", 8)), or);
+            assertEquals(0, a.compareTo(octal));
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchArrayList() {
+        Random random = new Random(36);
+        List<Byte> model = new ArrayList<>();
+        try (NumberListImpl list = NumberListImpl.empty(10, Storage.OFF_HEAP)) {
+            for (int step = 0; step < 20_000; step++) {
+                byte digit = (byte) random.nextInt(10);
+                int op = random.nextInt(10);
+                if (op < 3 || model.isEmpty()) {
+                    list.add(digit);
+                    model.add(digit);
+                } else if (op == 3) {
+                    int index = random.nextInt(model.size() + 1);
+                    list.add(index, digit);
+                    model.add(index, digit);
+                } else if (op == 4) {
+                    int index = random.nextInt(model.size());
+                    assertEquals(model.remove(index), list.remove(index));
+                } else if (op == 5) {
+                    list.shiftLeft();
+                    Collections.rotate(model, -1);
+                } else if (op == 6) {
+                    list.shiftRight();
+                    Collections.rotate(model, 1);
+                } else if (op == 7) {
+                    int index = random.nextInt(model.size() + 1);
+                    List<Byte> digits = Arrays.asList(digit, (byte) 0, digit);
+                    list.addAll(index, digits);
+                    model.addAll(index, digits);
+                } else if (op == 8) {
+                    assertEquals(model.lastIndexOf(digit), list.lastIndexOf(digit));
+                    assertEquals(model.remove(Byte.valueOf(digit)), list.remove(Byte.valueOf(digit)));
+                } else if (random.nextInt(50) == 0) {
+                    list.trimToSize();
+                } else {
+                    int index = random.nextInt(model.size());
+                    assertEquals(model.get(index), list.get(index));
+                }
+                assertEquals(model.size(), list.size());
+            }
+            assertEquals(model, list);
+
+            list.removeAll(Arrays.asList((byte) 1, (byte) 2));
+            model.removeAll(Arrays.asList((byte) 1, (byte) 2));
+            assertEquals(model, list);
+
+            list.sortDescending();
+            model.sort(Collections.reverseOrder());
+            assertEquals(model, list);
+        }
+    }
+
+    @Test
+    public void testGrowthAndTrimKeepOneClosableArena() {
+        SegmentDigitStore store = new SegmentDigitStore();
+        for (int i = 0; i < 1000; i++) {
+            store.add((byte) (i % 10));
+        }
+        assertEquals(1024, store.capacity());
+        store.trimToSize();
+        assertEquals(1000, store.capacity());
+        store.add((byte) 7);
+        assertEquals(2000, store.capacity());
+        assertEquals(7, store.get(1000));
+        store.close();
+        try {
+            store.get(0);
+            fail("Closed store must not be readable");
+        } catch (IllegalStateException expected) {
+            // the arena with all segments was closed
+        }
+    }
+
+    @Test
+    public void testClosedListIsUnusable() {
+        NumberListImpl list = NumberListImpl.of(NUMBER, 10, Storage.OFF_HEAP);
+        list.close();
+        list.close();
+        try {
+            list.get(0);
+            fail("Closed off-heap list must not be readable");
+        } catch (IllegalStateException expected) {
+            // memory was released
+        }
+    }
+
+    @Test
+    public void testCloseOfLinkedListKeepsDigits() {
+        NumberListImpl list = new NumberListImpl(NUMBER);
+        list.close();
+        assertFalse(list.isEmpty());
+        assertTrue(list.numericEquals(NumberListImpl.of(NUMBER, 10)));
+    }
+}
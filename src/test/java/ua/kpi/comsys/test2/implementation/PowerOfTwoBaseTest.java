@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PowerOfTwoBaseTest {
+
+    @Test
+    public void testRegroupBetweenPowerOfTwoBases() {
+        Random random = new Random(227);
+        int[] bases = {2, 4, 8, 16, 32};
+        for (int bits : new int[] {1, 7, 64, 1_000, 30_000}) {
+            BigInteger value = new BigInteger(bits, random);
+            for (int from : bases) {
+                NumberListImpl list = NumberListImpl.of(value.toString(), from);
+                for (int to : bases) {
+                    assertEquals(from + " -> " + to,
+                        value.toString(to).toUpperCase(), list.changeScale(to).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRegroupKeepsLeadingZerosOut() {
+        NumberListImpl list = NumberListImpl.of("0", 16);
+        list.add((byte) 0);
+        list.add((byte) 15);
+        assertEquals("17", list.changeScale(8).toString());
+        assertEquals("0", NumberListImpl.of("0", 16).changeScale(2).toString());
+    }
+
+    @Test
+    public void testOrInPowerOfTwoBases() {
+        Random random = new Random(14);
+        for (int i = 0; i < 20; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(3_000), random);
+            BigInteger b = new BigInteger(1 + random.nextInt(3_000), random);
+            NumberListImpl listA = NumberListImpl.of(a.toString(), 16);
+            NumberListImpl listB = NumberListImpl.of(b.toString(), 8);
+
+            NumberListImpl result = listA.additionalOperation(listB);
+            assertEquals(16, result.getBase());
+            assertEquals(a.or(b).toString(16).toUpperCase(), result.toString());
+        }
+    }
+
+    @Test
+    public void testOrWithZero() {
+        NumberListImpl zero = NumberListImpl.of("0", 8);
+        assertEquals("0", zero.additionalOperation(NumberListImpl.of("0", 2)).toString());
+        assertEquals("17", zero.additionalOperation(NumberListImpl.of("15", 4)).toString());
+    }
+}
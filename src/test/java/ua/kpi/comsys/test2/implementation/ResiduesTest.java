@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ResiduesTest {
+
+    private static final long[] MODULI = {
+        1, 2, 3, 7, 8, 9, 10, 26, 35, 97, 1_000_000_007L, 998_244_353L,
+        (1L << 31) - 1, 1L << 32, 4_294_967_311L, (1L << 61) - 1, Long.MAX_VALUE - 24, Long.MAX_VALUE
+    };
+
+    @Test
+    public void testModMatchesBigInteger() {
+        Random random = new Random(47);
+        for (int base = 2; base <= 36; base++) {
+            BigInteger value = new BigInteger(1 + random.nextInt(3000), random);
+            NumberListImpl list = NumberListImpl.of(value.toString(), base);
+            for (long m : MODULI) {
+                long expected = value.mod(BigInteger.valueOf(m)).longValueExact();
+                assertEquals("base " + base + " mod " + m, expected, list.mod(m));
+            }
+        }
+        assertEquals(0, NumberListImpl.empty(3, Storage.LINKED).mod(5));
+    }
+
+    @Test
+    public void testParallelModMatchesSequential() {
+        Random random = new Random(470);
+        for (int base : new int[] {2, 3, 10, 36}) {
+            NumberListImpl list = NumberListImpl.empty(base, Storage.PACKED);
+            for (int i = 0; i < 5 * Residues.CHUNK + 123; i++) {
+                list.add((byte) random.nextInt(base));
+            }
+            for (long m : MODULI) {
+                assertEquals("base " + base + " mod " + m, list.mod(m), list.parallelMod(m));
+            }
+        }
+        BigInteger value = new BigInteger(400_000, random);
+        NumberListImpl binary = NumberListImpl.of(value.toString(), 2);
+        assertEquals(value.mod(BigInteger.valueOf(1_000_000_007L)).longValue(), binary.parallelMod(1_000_000_007L));
+    }
+
+    @Test
+    public void testChunkBoundsOfLongestArray() {
+        int length = Integer.MAX_VALUE;
+        int chunks = Residues.chunks(length);
+        assertEquals((Integer.MAX_VALUE / Residues.CHUNK) + 1, chunks);
+        assertEquals(length, Residues.chunkEnd(chunks - 1, length));
+        assertEquals(Residues.CHUNK - 1, length - Residues.chunkStart(chunks - 1));
+        assertEquals(Residues.CHUNK, Residues.chunkEnd(0, length));
+        assertEquals(0, Residues.chunks(0));
+        assertEquals(1, Residues.chunks(1));
+    }
+
+    @Test
+    public void testDivisibility() {
+        NumberListImpl list = NumberListImpl.of("1234567890123456789012345678901234567890", 3);
+        BigInteger value = new BigInteger("1234567890123456789012345678901234567890");
+        for (int d = 1; d <= 100; d++) {
+            assertEquals("d = " + d, value.mod(BigInteger.valueOf(d)).signum() == 0, list.isDivisibleBy(d));
+        }
+        NumberListImpl octal = NumberListImpl.of("1234567890123456789012345678901234567891", 8);
+        BigInteger odd = new BigInteger("1234567890123456789012345678901234567891");
+        for (int d = 1; d <= 100; d++) {
+            assertEquals("d = " + d, odd.mod(BigInteger.valueOf(d)).signum() == 0, octal.isDivisibleBy(d));
+        }
+        try {
+            list.isDivisibleBy(0);
+            fail("Divisor must be positive");
+        } catch (IllegalArgumentException expected) {
+            // division by zero is undefined
+        }
+        try {
+            list.mod(-3);
+            fail("Modulus must be positive");
+        } catch (IllegalArgumentException expected) {
+            // remainders are defined for positive moduli only
+        }
+    }
+
+    @Test
+    public void testDigitStatistics() {
+        for (Storage storage : Storage.values()) {
+            NumberListImpl list = NumberListImpl.empty(10, storage);
+            int[] expected = new int[10];
+            long sum = 0;
+            Random random = new Random(4);
+            for (int i = 0; i < 20000; i++) {
+                int d = i % 100 < 50 ? 7 : random.nextInt(10);
+                list.add((byte) d);
+                expected[d]++;
+                sum += d;
+            }
+            assertArrayEquals(storage.name(), expected, list.digitHistogram());
+            assertEquals(storage.name(), sum, list.digitSum());
+            list.close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ResultCacheTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    private ResultCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new ResultCache(100_000, 4);
+        ResultCache.setShared(cache);
+    }
+
+    @After
+    public void tearDown() {
+        ResultCache.setShared(null);
+    }
+
+    @Test
+    public void testRepeatedConversionsAreHits() {
+        ResultCache.setShared(null);
+        NumberListImpl expected = new NumberListImpl(NUMBER).changeScale();
+        ResultCache.setShared(cache);
+
+        for (int i = 0; i < 5; i++) {
+            NumberListImpl result = new NumberListImpl(NUMBER).changeScale();
+            assertEquals(expected, result);
+            assertEquals(NUMBER, result.toDecimalString());
+        }
+        assertEquals(1, cache.getMissCount());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(1, cache.getEntryCount());
+        assertEquals(expected.size(), cache.getDigits());
+
+        new NumberListImpl(NUMBER).changeScale(5);
+        new NumberListImpl(NUMBER + "1").changeScale();
+        assertEquals(3, cache.getEntryCount());
+    }
+
+    @Test
+    public void testResultsAreDefensive() {
+        NumberListImpl first = new NumberListImpl(NUMBER).changeScale();
+        NumberListImpl expected = new NumberListImpl(NUMBER).changeScale();
+        assertEquals("shared", expected.storeName());
+        expected.add((byte) 7);
+        expected.remove(expected.size() - 1);
+        assertEquals("linked", expected.storeName());
+
+        NumberListImpl cached = new NumberListImpl(NUMBER).changeScale();
+        cached.set(0, (byte) 0);
+        cached.clear();
+        assertEquals(first, new NumberListImpl(NUMBER).changeScale());
+    }
+
+    @Test
+    public void testAdditionalOperation() {
+        NumberListImpl a = new NumberListImpl(NUMBER);
+        NumberListImpl b = new NumberListImpl("123456789012345678901234567890");
+        ResultCache.setShared(null);
+        NumberListImpl expected = a.additionalOperation(b);
+        ResultCache.setShared(cache);
+
+        assertEquals(expected, a.additionalOperation(b));
+        assertEquals(expected, a.additionalOperation(b));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(expected.toDecimalString(), a.additionalOperation(b).toDecimalString());
+
+        b.add((byte) 1);
+        NumberListImpl changed = a.additionalOperation(b);
+        assertEquals(2, cache.getMissCount());
+        ResultCache.setShared(null);
+        assertEquals(a.additionalOperation(b), changed);
+    }
+
+    @Test
+    public void testAdmitsResultsBiggerThanStripe() {
+        ResultCache striped = new ResultCache(1000, 16);
+        ResultCache.setShared(striped);
+        String big = NUMBER + NUMBER + NUMBER;
+        NumberListImpl expected = new NumberListImpl(big).changeScale();
+        assertTrue(expected.size() > 1000 / 16);
+        assertEquals(expected, new NumberListImpl(big).changeScale());
+        assertEquals(1, striped.getHitCount());
+        assertEquals(expected.size(), striped.getDigits());
+
+        for (int i = 0; i < 40; i++) {
+            new NumberListImpl(big + i).changeScale();
+        }
+        assertTrue(striped.getDigits() <= 1000);
+        assertTrue(striped.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testBoundedAndThreadSafe() {
+        ResultCache small = new ResultCache(200, 2);
+        ResultCache.setShared(small);
+        for (int i = 0; i < 50; i++) {
+            new NumberListImpl(NUMBER + i).changeScale();
+        }
+        assertTrue(small.getDigits() <= 200);
+        assertTrue(small.getEvictionCount() > 0);
+
+        ResultCache.setShared(cache);
+        String expected = new NumberListImpl(NUMBER).changeScale().toString();
+        List<String> results = IntStream.range(0, 2000).parallel()
+            .mapToObj(i -> new NumberListImpl(NUMBER + (i % 20)).changeScale().toString().substring(0, 3))
+            .collect(Collectors.toList());
+        assertEquals(2000, results.size());
+        assertEquals(expected, new NumberListImpl(NUMBER).changeScale().toString());
+        assertEquals(21, cache.getEntryCount());
+
+        try {
+            new ResultCache(100, 3);
+            fail("Stripes must be a power of two");
+        } catch (IllegalArgumentException e) {
+            // stripe is chosen by the low bits of the key
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class RunLengthStorageTest {
+
+    @Test
+    public void testMatchesArrayListOnRandomChanges() {
+        Random random = new Random(41);
+        NumberListImpl list = NumberListImpl.empty(3, Storage.RUN_LENGTH);
+        List<Byte> expected = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            byte digit = (byte) (random.nextInt(10) < 8 && !expected.isEmpty()
+                ? expected.get(expected.size() - 1) : random.nextInt(3));
+            int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+            switch (random.nextInt(7)) {
+                case 0:
+                    list.add(index, digit);
+                    expected.add(index, digit);
+                    break;
+                case 1:
+                    if (!expected.isEmpty()) {
+                        assertEquals(expected.remove(index), list.remove(index));
+                    }
+                    break;
+                case 2:
+                    if (!expected.isEmpty()) {
+                        assertEquals(expected.set(index, digit), list.set(index, digit));
+                    }
+                    break;
+                case 3:
+                    list.shiftLeft();
+                    if (expected.size() > 1) {
+                        Collections.rotate(expected, -1);
+                    }
+                    break;
+                case 4:
+                    list.shiftRight();
+                    if (expected.size() > 1) {
+                        Collections.rotate(expected, 1);
+                    }
+                    break;
+                case 5:
+                    List<Byte> run = Collections.nCopies(random.nextInt(5), digit);
+                    list.addAll(index, run);
+                    expected.addAll(index, run);
+                    break;
+                default:
+                    list.add(digit);
+                    expected.add(digit);
+                    break;
+            }
+            if (step % 100 == 0) {
+                assertEquals(expected, list);
+                assertEquals(expected.indexOf(digit), list.indexOf(digit));
+                assertEquals(expected.lastIndexOf(digit), list.lastIndexOf(digit));
+            }
+        }
+        assertEquals(expected, list);
+        assertEquals(new ArrayList<>(expected).hashCode(), list.hashCode());
+    }
+
+    @Test
+    public void testChangesAtTheFront() {
+        Random random = new Random(4141);
+        RunLengthDigitStore store = new RunLengthDigitStore();
+        List<Byte> expected = new ArrayList<>();
+        for (int step = 0; step < 20000; step++) {
+            byte digit = (byte) random.nextInt(3);
+            switch (random.nextInt(5)) {
+                case 0:
+                    store.add(0, digit);
+                    expected.add(0, digit);
+                    break;
+                case 1:
+                    if (!expected.isEmpty()) {
+                        assertEquals((byte) expected.remove(0), store.remove(0));
+                    }
+                    break;
+                case 2:
+                    if (expected.size() > 1) {
+                        store.rotateLeft();
+                        Collections.rotate(expected, -1);
+                    }
+                    break;
+                case 3:
+                    if (expected.size() > 1) {
+                        store.rotateRight();
+                        Collections.rotate(expected, 1);
+                    }
+                    break;
+                default:
+                    store.add(digit);
+                    expected.add(digit);
+                    break;
+            }
+            if (step % 500 == 0) {
+                assertStoreEquals(expected, store);
+            }
+        }
+        assertStoreEquals(expected, store);
+        store.trimToSize();
+        assertStoreEquals(expected, store);
+    }
+
+    /**
+     * A shift changes only the first and last runs, so shifting a number
+     * of many runs as many times takes linear, not quadratic, time.
+     */
+    @Test(timeout = 30000)
+    public void testShiftsOfManyRunsTakeConstantTime() {
+        int runs = 200000;
+        RunLengthDigitStore store = new RunLengthDigitStore();
+        for (int i = 0; i < runs; i++) {
+            store.add((byte) (i % 2));
+        }
+        for (int i = 0; i < runs; i++) {
+            store.rotateLeft();
+        }
+        for (int i = 0; i < 3 * runs; i++) {
+            store.rotateRight();
+        }
+        assertEquals(runs, store.runCount());
+        assertEquals(runs, store.size());
+        assertEquals(0, store.get(0));
+        assertEquals(1, store.get(runs - 1));
+    }
+
+    private static void assertStoreEquals(List<Byte> expected, RunLengthDigitStore store) {
+        byte[] actual = new byte[store.size()];
+        store.read(0, actual, 0, actual.length);
+        assertEquals(expected.size(), actual.length);
+        for (int i = 0; i < actual.length; i++) {
+            assertEquals("digit " + i, (byte) expected.get(i), actual[i]);
+        }
+    }
+
+    @Test
+    public void testSortsAndConversions() {
+        String number = "79483758967495604375647803561675463655464562565464565654634156134636";
+        NumberListImpl linked = NumberListImpl.of(number, 3);
+        NumberListImpl runs = NumberListImpl.of(number, 3, Storage.RUN_LENGTH);
+        assertEquals(linked, runs);
+        assertEquals(number, runs.toDecimalString());
+        assertEquals(linked.changeScale(), runs.changeScale());
+        assertSame(Storage.RUN_LENGTH, runs.changeScale().getStorage());
+
+        linked.sortDescending();
+        runs.sortDescending();
+        assertEquals(linked, runs);
+        linked.sortAscending();
+        runs.sortAscending();
+        assertEquals(linked, runs);
+        assertEquals(linked.indexOf((byte) 2), runs.indexOf((byte) 2));
+        assertEquals(linked.lastIndexOf((byte) 0), runs.lastIndexOf((byte) 0));
+    }
+
+    @Test
+    public void testAutoSwitchesByRunDensity() {
+        String ones = BigInteger.ONE.shiftLeft(1000).subtract(BigInteger.ONE).toString();
+        NumberListImpl list = NumberListImpl.of(ones, 2, Storage.AUTO);
+        assertEquals("run-length", list.storeName());
+        assertEquals(1000, list.size());
+
+        List<Byte> expected = new ArrayList<>(list);
+        for (int i = 0; i < 1000; i += 2) {
+            list.set(i, (byte) 0);
+            expected.set(i, (byte) 0);
+        }
+        assertEquals("packed", list.storeName());
+        assertEquals(expected, list);
+
+        list.sortDescending();
+        Collections.sort(expected, Collections.reverseOrder());
+        assertEquals("run-length", list.storeName());
+        assertEquals(expected, list);
+        assertSame(Storage.AUTO, list.getStorage());
+
+        NumberListImpl dense = NumberListImpl.of(ones.substring(0, 100), 10, Storage.AUTO);
+        assertEquals("packed", dense.storeName());
+    }
+}
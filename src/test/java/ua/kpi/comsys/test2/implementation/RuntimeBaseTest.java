@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RuntimeBaseTest {
+    static String DECIMAL = "1212144468782345613";
+
+    @Test
+    public void testOfAllBases() {
+        BigInteger value = new BigInteger(DECIMAL);
+        for (int base = 2; base <= 36; base++) {
+            NumberListImpl list = NumberListImpl.of(DECIMAL, base);
+            assertEquals(base, list.getBase());
+            assertEquals("base " + base, value.toString(base).toUpperCase(), list.toString());
+            assertEquals("base " + base, DECIMAL, list.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testChangeScaleToAnyBase() {
+        NumberListImpl list = new NumberListImpl(DECIMAL);
+        assertEquals(ScaleOfNotationChangeTest.HEXADECIMAL, list.changeScale(16).toString());
+        assertEquals(ScaleOfNotationChangeTest.BINARY, list.changeScale(2).toString());
+        assertEquals(DECIMAL, list.changeScale(10).toString());
+        assertEquals(ScaleOfNotationChangeTest.TERNARY, list.changeScale(3).toString());
+        assertEquals(ScaleOfNotationChangeTest.OCTAL, list.changeScale(16).changeScale(8).toString());
+    }
+
+    @Test
+    public void testBigRandomNumbers() {
+        Random random = new Random(6);
+        for (int bits : new int[] {1, 63, 64, 100, 5_000, 40_000}) {
+            BigInteger value = new BigInteger(bits, random);
+            for (int base : new int[] {2, 3, 7, 8, 10, 16, 36}) {
+                NumberListImpl list = NumberListImpl.of(value.toString(), base);
+                assertEquals(value.toString(base).toUpperCase(), list.toString());
+                assertEquals(value.toString(), list.toDecimalString());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBaseOutOfRange() {
+        NumberListImpl.of(DECIMAL, 37);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChangeScaleOutOfRange() {
+        new NumberListImpl(DECIMAL).changeScale(1);
+    }
+
+    @Test
+    public void testInvalidInput() {
+        assertTrue(NumberListImpl.of("12a", 16).isEmpty());
+        assertEquals("0", NumberListImpl.of("0", 36).toString());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShadowValueTest {
+
+    @Test
+    public void testAppendedDigitsGiveSameValue() {
+        Random random = new Random(38);
+        for (int base : new int[] {3, 10, 36}) {
+            NumberListImpl list = NumberListImpl.empty(base, NumberListImpl.Storage.LINKED);
+            list.setShadowValueEnabled(true);
+            assertTrue(list.isShadowValueEnabled());
+            StringBuilder digits = new StringBuilder();
+            for (int i = 0; i < 5000; i++) {
+                byte d = (byte) random.nextInt(base);
+                list.add(d);
+                digits.append(Character.forDigit(d, base));
+                if (i % 997 == 0) {
+                    assertEquals(new BigInteger(digits.toString(), base).toString(), list.toDecimalString());
+                }
+            }
+            assertEquals(new BigInteger(digits.toString(), base).toString(), list.toDecimalString());
+        }
+    }
+
+    @Test
+    public void testOtherChangesDropRunningValue() {
+        NumberListImpl list = new NumberListImpl();
+        list.setShadowValueEnabled(true);
+        for (int i = 0; i < 200; i++) {
+            list.add((byte) (i % 3));
+        }
+        String before = list.toDecimalString();
+        list.set(0, (byte) 2);
+        list.add((byte) 1);
+        assertEquals(reference(list), list.toDecimalString());
+        assertFalse(before.equals(list.toDecimalString()));
+
+        list.remove(5);
+        list.shiftLeft();
+        list.add((byte) 2);
+        assertEquals(reference(list), list.toDecimalString());
+        assertEquals(new NumberListImpl(list.toDecimalString()).changeScale(), list.changeScale());
+
+        list.clear();
+        list.add((byte) 2);
+        list.add((byte) 1);
+        assertEquals("7", list.toDecimalString());
+
+        list.setShadowValueEnabled(false);
+        assertFalse(list.isShadowValueEnabled());
+        list.add((byte) 0);
+        assertEquals("21", list.toDecimalString());
+    }
+
+    @Test
+    public void testEnabledOnExistingList() {
+        NumberListImpl list = new NumberListImpl("79483758967495604375647803561675463655464562565464565654634156134636");
+        list.setShadowValueEnabled(true);
+        list.add((byte) 1);
+        assertEquals("238451276902486813126943410685026390966393687696393696963902468403909",
+            list.toDecimalString());
+    }
+
+    private static String reference(NumberListImpl list) {
+        StringBuilder digits = new StringBuilder();
+        for (Byte d : list) {
+            digits.append(d);
+        }
+        return new BigInteger(digits.toString(), list.getBase()).toString();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SpliceTest {
+
+    private static NumberListImpl randomList(Random random, Storage storage, List<Byte> expected, int size) {
+        NumberListImpl list = NumberListImpl.empty(10, storage);
+        for (int i = 0; i < size; i++) {
+            byte digit = (byte) random.nextInt(10);
+            list.add(digit);
+            expected.add(digit);
+        }
+        // вільні вузли в арені джерела
+        for (int i = 0; i < size / 4; i++) {
+            int index = random.nextInt(expected.size());
+            assertEquals(expected.remove(index), list.remove(index));
+        }
+        return list;
+    }
+
+    @Test
+    public void testSpliceMatchesArrayList() {
+        Random random = new Random(46);
+        for (Storage target : Storage.values()) {
+            for (Storage source : Storage.values()) {
+                List<Byte> expected = new ArrayList<>();
+                NumberListImpl list = randomList(random, target, expected, random.nextInt(3000));
+                for (int step = 0; step < 20; step++) {
+                    List<Byte> chunk = new ArrayList<>();
+                    NumberListImpl other = randomList(random, source, chunk, random.nextInt(3000));
+                    int index = random.nextInt(expected.size() + 1);
+                    assertSame(list, list.splice(index, other));
+                    expected.addAll(index, chunk);
+                    assertTrue(other.isEmpty());
+
+                    // обидва списки лишаються придатними до змін
+                    other.add((byte) 7);
+                    assertEquals(List.of((byte) 7), other);
+                    int at = random.nextInt(expected.size() + 1);
+                    list.add(at, (byte) 3);
+                    expected.add(at, (byte) 3);
+                }
+                String name = target + " <- " + source;
+                assertEquals(name, expected, list);
+                assertEquals(name, expected.size(), list.size());
+                assertEquals(name, expected.hashCode(), list.hashCode());
+            }
+        }
+    }
+
+    @Test
+    public void testAppendBuildsNumberFromChunks() {
+        NumberListImpl number = new NumberListImpl();
+        NumberListImpl whole = new NumberListImpl();
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            NumberListImpl chunk = new NumberListImpl();
+            for (int j = 0; j < 100; j++) {
+                byte digit = (byte) random.nextInt(3);
+                chunk.add(digit);
+                whole.add(digit);
+            }
+            number.append(chunk);
+        }
+        assertEquals(whole, number);
+        assertEquals(whole.toDecimalString(), number.toDecimalString());
+    }
+
+    @Test(timeout = 10000)
+    public void testLinkedSpliceDoesNotCopyNodes() {
+        int digits = 1 << 21;
+        int steps = 5000;
+        NumberListImpl list = NumberListImpl.empty(10, Storage.LINKED);
+        for (int i = 0; i < digits; i++) {
+            list.add((byte) (i % 10));
+        }
+        NumberListImpl other = NumberListImpl.empty(10, Storage.LINKED);
+        // copying the nodes would move 2 * steps * digits of them
+        for (int step = 0; step < steps; step++) {
+            other.add((byte) 0);
+            other.splice(1, list);
+            list.add((byte) 0);
+            list.splice(1, other);
+        }
+        list.trimToSize();
+        assertEquals(digits + 2 * steps, list.size());
+        int i = 0;
+        for (byte digit : list) {
+            int expected = i < 2 * steps ? 0 : (i - 2 * steps) % 10;
+            assertEquals(expected, digit);
+            i++;
+        }
+        assertTrue(other.isEmpty());
+    }
+
+    @Test
+    public void testAddAllOfNumberList() {
+        NumberListImpl list = NumberListImpl.of("123456789", 8);
+        NumberListImpl other = NumberListImpl.of("987654321", 8);
+        List<Byte> expected = new ArrayList<>(list);
+        expected.addAll(2, other);
+        assertTrue(list.addAll(2, other));
+        assertEquals(expected, list);
+        assertEquals(NumberListImpl.of("987654321", 8), other);
+
+        expected.addAll(expected);
+        list.addAll(list);
+        assertEquals(expected, list);
+
+        try {
+            NumberListImpl.of("123", 3).addAll(other);
+            fail("Octal digits are not valid in base 3");
+        } catch (IllegalArgumentException expectedError) {
+            // digits of a list in another base are checked one by one
+        }
+    }
+
+    @Test
+    public void testSpliceRejectsOtherBaseAndItself() {
+        NumberListImpl list = NumberListImpl.of("123", 3);
+        try {
+            list.append(NumberListImpl.of("123", 8));
+            fail("Bases differ");
+        } catch (IllegalArgumentException expected) {
+            // lists of different bases cannot be joined digit by digit
+        }
+        try {
+            list.append(list);
+            fail("List cannot be moved into itself");
+        } catch (IllegalArgumentException expected) {
+            // other list is emptied by the move
+        }
+        try {
+            list.splice(list.size() + 1, new NumberListImpl());
+            fail("Index is out of range");
+        } catch (IndexOutOfBoundsException expected) {
+            // position is checked first
+        }
+        assertEquals(NumberListImpl.of("123", 3), list);
+    }
+}
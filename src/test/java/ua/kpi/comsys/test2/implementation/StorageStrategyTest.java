@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2014-2015, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl.Storage;
+
+import static org.junit.Assert.assertEquals;
+
+public class StorageStrategyTest {
+
+    private static final String NUMBER = "79483758967495604375647803561675463655464562565464565654634156134636";
+
+    @Test
+    public void testStoresMatchArrayList() {
+        for (Storage storage : new Storage[] {Storage.PACKED, Storage.GAP_BUFFER, Storage.TREE}) {
+            Random random = new Random(42);
+            NumberListImpl list = NumberListImpl.empty(10, storage);
+            List<Byte> expected = new ArrayList<>();
+            for (int step = 0; step < 5000; step++) {
+                byte digit = (byte) random.nextInt(10);
+                int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+                switch (random.nextInt(8)) {
+                    case 0:
+                        list.add(index, digit);
+                        expected.add(index, digit);
+                        break;
+                    case 1:
+                        if (!expected.isEmpty()) {
+                            assertEquals(expected.remove(index), list.remove(index));
+                        }
+                        break;
+                    case 2:
+                        if (!expected.isEmpty()) {
+                            assertEquals(expected.set(index, digit), list.set(index, digit));
+                        }
+                        break;
+                    case 3:
+                        list.shiftLeft();
+                        if (expected.size() > 1) {
+                            Collections.rotate(expected, -1);
+                        }
+                        break;
+                    case 4:
+                        list.shiftRight();
+                        if (expected.size() > 1) {
+                            Collections.rotate(expected, 1);
+                        }
+                        break;
+                    case 5:
+                        List<Byte> digits = new ArrayList<>();
+                        for (int i = random.nextInt(300); i > 0; i--) {
+                            digits.add((byte) random.nextInt(10));
+                        }
+                        list.addAll(index, digits);
+                        expected.addAll(index, digits);
+                        break;
+                    default:
+                        list.add(digit);
+                        expected.add(digit);
+                        break;
+                }
+                if (step % 250 == 0) {
+                    assertEquals(storage.name(), expected, list);
+                    assertEquals(storage.name(), expected.indexOf(digit), list.indexOf(digit));
+                    assertEquals(storage.name(), expected.lastIndexOf(digit), list.lastIndexOf(digit));
+                }
+            }
+            assertEquals(storage.name(), expected, list);
+            list.trimToSize();
+            list.sortAscending();
+            Collections.sort(expected);
+            assertEquals(storage.name(), expected, list);
+        }
+    }
+
+    @Test
+    public void testConversionsKeepStorage() {
+        for (Storage storage : new Storage[] {Storage.PACKED, Storage.GAP_BUFFER, Storage.TREE, Storage.AUTO}) {
+            NumberListImpl list = NumberListImpl.of(NUMBER, 3, storage);
+            assertEquals(new NumberListImpl(NUMBER), list);
+            assertEquals(NUMBER, list.toDecimalString());
+            assertEquals(storage, list.changeScale().getStorage());
+            assertEquals(new NumberListImpl(NUMBER).changeScale(), list.changeScale());
+        }
+    }
+
+    @Test
+    public void testAutoFollowsOperationMix() {
+        Random random = new Random(7);
+        NumberListImpl list = NumberListImpl.of(NUMBER + NUMBER + NUMBER, 10, Storage.AUTO);
+        assertEquals("packed", list.storeName());
+
+        for (int i = 0; i < 2 * AccessProfile.MIN_WINDOW; i++) {
+            list.add(random.nextInt(list.size()), (byte) 1);
+        }
+        assertEquals("tree", list.storeName());
+
+        int cursor = list.size() / 2;
+        for (int i = 0; i < 2 * AccessProfile.MIN_WINDOW; i++) {
+            list.add(cursor++, (byte) 2);
+        }
+        assertEquals("gap-buffer", list.storeName());
+
+        for (int i = 0; i < 2 * AccessProfile.MIN_WINDOW; i++) {
+            list.get(random.nextInt(list.size()));
+        }
+        assertEquals("packed", list.storeName());
+    }
+
+    @Test
+    public void testSwitchesAreCounted() {
+        NumberListMetrics metrics = new NumberListMetrics();
+        metrics.addSwitch("packed", "tree");
+        metrics.addSwitch("packed", "tree");
+        metrics.addSwitch("tree", "gap-buffer");
+        assertEquals(Long.valueOf(2), metrics.getStoreSwitches().get("packed->tree"));
+        assertEquals(Long.valueOf(1), metrics.getStoreSwitches().get("tree->gap-buffer"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getStoreSwitches().size());
+    }
+}